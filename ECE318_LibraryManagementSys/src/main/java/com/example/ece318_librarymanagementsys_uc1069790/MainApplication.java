@@ -1,5 +1,6 @@
 package com.example.ece318_librarymanagementsys;
 
+import com.example.ece318_librarymanagementsys.database.SchemaManager;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -7,6 +8,12 @@ import javafx.stage.Stage;
 import java.io.IOException;
 
 public class MainApplication extends Application {
+    // Runs on the launcher thread, before any window or DAO is used
+    @Override
+    public void init() {
+        SchemaManager.ensureSchema();
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource("main-view.fxml"));
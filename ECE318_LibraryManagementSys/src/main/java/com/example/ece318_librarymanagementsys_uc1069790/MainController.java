@@ -4,28 +4,50 @@ import com.example.ece318_librarymanagementsys.controller.*;
 import com.example.ece318_librarymanagementsys.controller.core.*;
 import com.example.ece318_librarymanagementsys.database.*;
 import com.example.ece318_librarymanagementsys.model.*;
+import com.example.ece318_librarymanagementsys.search.BookColumns;
+import com.example.ece318_librarymanagementsys.search.BookFacetIndex;
+import com.example.ece318_librarymanagementsys.search.BookLeaderboards;
+import com.example.ece318_librarymanagementsys.search.BookOrder;
+import com.example.ece318_librarymanagementsys.search.BookSearchIndex;
+import com.example.ece318_librarymanagementsys.search.NearDuplicates;
 import com.example.ece318_librarymanagementsys.util.*;
 import javafx.application.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import org.controlsfx.control.CheckComboBox;
+import org.controlsfx.control.RangeSlider;
 
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class MainController {
 
+    private static final int BOOK_PAGE_SIZE = 5000;
+    // above this many changed rows a reload replaces the list instead of patching it
+    private static final int MAX_PATCHED_BOOKS = 1000;
+
     // Observable collections
     private final ObservableList<Book> booksList = FXCollections.observableArrayList();
     private final ObservableList<Genre> genresList = FXCollections.observableArrayList();
-    private final ObservableList<SubGenre> subGenresList = FXCollections.observableArrayList();
+    private final ObservableList<SubGenreRow> subGenresList = FXCollections.observableArrayList();
+
+    // Kept in step with booksList through its change listener
+    private final BookColumns bookColumns = new BookColumns(booksList);
+    private final BookOrder bookOrder = new BookOrder(booksList);
+    private final BookLeaderboards bookLeaderboards = new BookLeaderboards(booksList);
+    private final BookSearchIndex bookSearchIndex = new BookSearchIndex(booksList);
+    private final BookFacetIndex bookFacetIndex = new BookFacetIndex(booksList, bookColumns);
 
     // Cached statistics
     private final Map<String, GenreDAO.GenreStat> genreStatistics = new HashMap<>();
-    private final Map<String, SubGenreDAO.SubGenreStat> subGenreStatistics = new HashMap<>();
 
     // DAO instances
     private final BookDAO bookDataAccess = new BookDAO();
@@ -35,11 +57,15 @@ public class MainController {
     // Controllers
     private TableController<Book> bookTableController;
     private TableController<Genre> genreTableController;
-    private TableController<SubGenre> subGenreTableController;
+    private TableController<SubGenreRow> subGenreTableController;
 
     private SearchController<Book> bookSearchController;
     private SearchController<Genre> genreSearchController;
-    private SearchController<SubGenre> subGenreSearchController;
+    private SearchController<SubGenreRow> subGenreSearchController;
+    private SuggestionController bookSuggestionController;
+    private RangeFilterController priceFilter;
+    private RangeFilterController ratingFilter;
+    private RangeFilterController ratedFilter;
 
     private GenreDetailsController genreDetailsController;
     private BookDetailsController bookDetailsController;
@@ -49,10 +75,22 @@ public class MainController {
     // Books tab
     @FXML private Button loadBooksButton;
     @FXML private Button exportBooksButton;
+    @FXML private Button findDuplicatesButton;
+    @FXML private Button syncBooksButton;
+    @FXML private HBox exportProgressBox;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Button cancelExportBtn;
     @FXML private TableView<Book> booksTable;
     @FXML private TextField searchBooksField;
+    @FXML private ToggleButton fuzzySearchToggle;
     @FXML private CheckComboBox<String> filterGenreBox;
     @FXML private CheckComboBox<String> filterSubGenreBox;
+    @FXML private RangeSlider priceRangeSlider;
+    @FXML private RangeSlider ratingRangeSlider;
+    @FXML private RangeSlider ratedRangeSlider;
+    @FXML private Label lblPriceRange;
+    @FXML private Label lblRatingRange;
+    @FXML private Label lblRatedRange;
     @FXML private HBox booksContentArea;
     @FXML private VBox bookDetailsPanel;
     @FXML private Button closeDetailsBtn;
@@ -65,9 +103,11 @@ public class MainController {
     @FXML private Label lblBookRating;
     @FXML private Label lblBookRatingsCount;
     @FXML private Hyperlink lblBookURL;
+    @FXML private Label booksSummaryLabel;
 
     // Genres tab
     @FXML private Button exportGenresButton;
+    @FXML private Button exportTopBooksButton;
     @FXML private Button reloadGenresButton;
     @FXML private TableView<Genre> genresTable;
     @FXML private TextField searchGenreField;
@@ -80,20 +120,45 @@ public class MainController {
     @FXML private Label lblGenreAvgPrice;
     @FXML private ListView<String> lvGenreSubGenres;
     @FXML private Hyperlink lblGenreURL;
+    @FXML private Label lblGenreTopBooks;
+    @FXML private ChoiceBox<BookLeaderboards.Board> cbGenreTopBoard;
+    @FXML private ListView<String> lvGenreTopBooks;
 
     // Subgenres tab
     @FXML private Button exportSubGenresButton;
     @FXML private Button reloadSubGenresButton;
-    @FXML private TableView<SubGenre> subGenresTable;
+    @FXML private TableView<SubGenreRow> subGenresTable;
     @FXML private TextField searchSubGenreField;
 
+    // Top bar
+    @FXML private ProgressIndicator loadingIndicator;
+
     // State
     private HostServices hostServices;
     private boolean isFullyInitialized = false;
 
+    // Latest background load; a newer refresh cancels it
+    private CompletableFuture<LoadedData> pendingLoad;
+    private boolean memoryReported = false;
+    private boolean summaryQueued = false;
+
+    // Rows fetched on the database executor for one refresh
+    private static final class LoadedData {
+        final List<Book> books;
+        final List<Genre> genres;
+        final List<SubGenre> subGenres;
+
+        LoadedData(List<Book> books, List<Genre> genres, List<SubGenre> subGenres) {
+            this.books = books;
+            this.genres = genres;
+            this.subGenres = subGenres;
+        }
+    }
+
     // Initialization entrypoint
     @FXML
     private void initialize() {
+        loadingIndicator.visibleProperty().bind(AsyncDAO.busyProperty());
         initializeControllers();
         loadAllData();
         setupCRUDHelper();
@@ -115,9 +180,10 @@ public class MainController {
     }
 
     private void initializeTableControllers() {
-        bookTableController = TableController.forBooks(booksTable, hostServices);
+        bookTableController = TableController.forBooks(booksTable, hostServices, bookColumns, bookOrder);
+        bookTableController.onRowsChanged(this::queueBooksSummary);
         genreTableController = TableController.forGenres(genresTable, hostServices, genreStatistics);
-        subGenreTableController = TableController.forSubGenres(subGenresTable, hostServices, subGenreStatistics);
+        subGenreTableController = TableController.forSubGenres(subGenresTable, hostServices);
     }
 
     private void initializeDetailPanels() {
@@ -131,14 +197,13 @@ public class MainController {
         genreDetailsController = GenreDetailsController.create(
                 genresContentArea, genreDetailsPanel, closeGenreDetailsBtn, genresTable,
                 lblGenreName, lblGenreTotalBooks, lblGenreAvgRating, lblGenreAvgPrice,
-                lvGenreSubGenres, lblGenreURL, hostServices
+                lvGenreSubGenres, lblGenreURL,
+                lblGenreTopBooks, cbGenreTopBoard, lvGenreTopBooks, bookLeaderboards, hostServices
         );
     }
 
     private void initializeFileController() {
-        fileOperationsController = new BookFileController(
-                bookDataAccess, booksList, genresList, subGenresList
-        );
+        fileOperationsController = new BookFileController(bookDataAccess, booksList);
     }
 
     private void setupCRUDHelper() {
@@ -146,20 +211,55 @@ public class MainController {
                 fileOperationsController, bookDataAccess, genreDataAccess, subGenreDataAccess
         );
 
+        crudOperationsHelper.setBookChangeHandler(this::applyBookChange);
+
         Platform.runLater(() ->
                 crudOperationsHelper.setOwner(loadBooksButton.getScene().getWindow())
         );
     }
 
+    /**
+     * A confirmed single-book write (before, after; either may be null for an add or
+     * a delete): the list row and the stats change together on the FX thread.
+     */
+    private void applyBookChange(Book before, Book after) {
+        int id = before != null ? before.getId() : after.getId();
+        int pos = indexOfBook(id);
+
+        if (pos >= 0) {
+            if (after != null) booksList.set(pos, after);
+            else booksList.remove(pos);
+        } else if (after != null) {
+            booksList.add(-pos - 1, after);
+        }
+
+        if (before != null) StatsStore.remove(before);
+        if (after != null) StatsStore.add(after);
+    }
+
+    // booksList is in id order; insertion point encoded as -(point + 1) when absent
+    private int indexOfBook(int id) {
+        int lo = 0, hi = booksList.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = booksList.get(mid).getId();
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // Wires the (still empty) tables, then fills them from a background load
     private void loadAllData() {
         loadBooksData();
         loadGenresData();
         loadSubGenresData();
         attachSelectionHandlers();
+        reloadAllData();
     }
 
     private void loadBooksData() {
-        booksList.setAll(bookDataAccess.getAll());
         bookTableController.setItems(booksList);
 
         bookSearchController = new SearchController<>(
@@ -169,13 +269,34 @@ public class MainController {
 
         bookSearchController.enableAdvancedFilters(
                 filterGenreBox, filterSubGenreBox,
-                Book::getResolvedMainGenreCached,
-                Book::getResolvedSubGenreCached
+                Book::getResolvedMainGenre,
+                Book::getResolvedSubGenre
         );
+        bookSearchController.useFacetIndex(Book::getId, bookFacetIndex::select);
+        bookSearchController.useFacetCounts(bookFacetIndex::count);
+        bookSearchController.useExtraIndex(Book::getId, this::rangeMatches);
+        useBookTextIndex();
+
+        if (bookSuggestionController == null) {
+            bookSuggestionController = new SuggestionController(
+                    searchBooksField, bookSearchIndex::suggest, this::applyFacetSuggestion);
+
+            Runnable refilter = () -> bookSearchController.refilter();
+            priceFilter = new RangeFilterController(priceRangeSlider, lblPriceRange, "Price",
+                    v -> String.format("₹%.0f", v), true, refilter);
+            ratingFilter = new RangeFilterController(ratingRangeSlider, lblRatingRange, "Rating",
+                    v -> String.format("%.1f", v), false, refilter);
+            ratedFilter = new RangeFilterController(ratedRangeSlider, lblRatedRange, "Ratings",
+                    v -> String.format("%,.0f", v), true, refilter);
+
+            // a cleared search drops the relevance order along with the filter
+            searchBooksField.textProperty().addListener((obs, oldVal, newVal) -> {
+                if (newVal == null || newVal.isBlank()) bookTableController.setDefaultOrder(null);
+            });
+        }
     }
 
     private void loadGenresData() {
-        refreshGenreStatistics();
         genreTableController.setItems(genresList);
 
         genreSearchController = new SearchController<>(
@@ -185,7 +306,6 @@ public class MainController {
     }
 
     private void loadSubGenresData() {
-        refreshSubGenreStatistics();
         subGenreTableController.setItems(subGenresList);
 
         subGenreSearchController = new SearchController<>(
@@ -199,45 +319,130 @@ public class MainController {
         genreTableController.onSelect(this::displayGenreDetails);
     }
 
-    private void refreshGenreStatistics() {
+    private void refreshGenreStatistics(List<Genre> genres) {
         genreStatistics.clear();
-        List<GenreDAO.GenreStat> stats = genreDataAccess.getGenreStats();
-        stats.forEach(s -> genreStatistics.put(s.name, s));
-        genresList.setAll(genreDataAccess.getAll());
+        for (Genre g : genres) {
+            StatsStore.Aggregate s = StatsStore.genre(g.getId());
+            genreStatistics.put(g.getName(),
+                    new GenreDAO.GenreStat(g.getId(), g.getName(), s.count, s.avgRating, s.avgPrice));
+        }
+        genresList.setAll(genres);
     }
 
-    private void refreshSubGenreStatistics() {
-        subGenreStatistics.clear();
-        List<SubGenreDAO.SubGenreStat> stats = subGenreDataAccess.getSubGenreStats();
-        stats.forEach(s -> subGenreStatistics.putIfAbsent(s.name, s));
-        subGenresList.setAll(subGenreDataAccess.getAll());
+    // Builds the pre-joined table rows in memory: genre name from the dictionary, stats by id
+    private void refreshSubGenreStatistics(List<SubGenre> subGenres) {
+        List<SubGenreRow> rows = new ArrayList<>();
+        for (SubGenre sg : subGenres) {
+            StatsStore.Aggregate s = StatsStore.subGenre(sg.getId());
+            String genreName = GenreDictionary.genreName(sg.getGenreId());
+
+            rows.add(new SubGenreRow(sg,
+                    genreName != null ? genreName : sg.getMainGenre(),
+                    s.count, s.avgRating, s.avgPrice));
+        }
+        subGenresList.setAll(rows);
     }
 
     @FXML
     private void onLoadBooks() {
-        fileOperationsController.loadBooksFromCSV(loadBooksButton.getScene().getWindow());
-        refreshAllData();
-        bookSearchController.refreshFilters();
+        fileOperationsController.loadBooksFromCSV(loadBooksButton.getScene().getWindow(), this::reloadAllData);
+    }
+
+    // Imports and syncs return counts only; the lists are re-read and patched
+    @FXML
+    private void onSyncBooks() {
+        fileOperationsController.syncBooksFromCSV(syncBooksButton.getScene().getWindow(), this::reloadAllData);
     }
 
     @FXML
     private void onAddBook() {
-        crudOperationsHelper.addBook(this::refreshAllData);
+        crudOperationsHelper.addBook(this::refreshBookViews);
     }
 
     @FXML
     private void onEditBook() {
-        crudOperationsHelper.editBook(booksTable, this::refreshAllData);
+        crudOperationsHelper.editBook(booksTable, this::refreshBookViews);
     }
 
     @FXML
     private void onDeleteBook() {
-        crudOperationsHelper.deleteBook(booksTable, this::refreshAllData);
+        crudOperationsHelper.deleteBook(booksTable, this::refreshBookViews);
     }
 
     @FXML
     private void onExportBooks() {
-        exportData(exportBooksButton, booksTable.getItems());
+        List<Book> shown = booksTable.getItems();
+        if (shown.isEmpty()) {
+            fileOperationsController.showInformation("No data to export.");
+            return;
+        }
+
+        File file = PDFExporter.promptForFile(exportBooksButton.getScene().getWindow(), "Export Books to PDF");
+        if (file == null) return;
+
+        // The whole catalogue in id order streams from the database; a filtered, sorted or
+        // relevance-ordered view is exported as shown, from a snapshot of its rows
+        boolean wholeTable = shown.size() == booksList.size() && booksTable.getSortOrder().isEmpty()
+                && !bookTableController.hasDefaultOrder();
+        List<Book> snapshot = wholeTable ? null : new ArrayList<>(shown);
+        long total = shown.size();
+
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                try (Stream<Book> rows = wholeTable ? bookDataAccess.stream() : snapshot.stream()) {
+                    PDFExporter.streamBooks(file, rows, total, written -> {
+                        if (isCancelled()) throw new CancellationException("Export cancelled");
+                        updateProgress(written, total);
+                    });
+                }
+                return null;
+            }
+        };
+
+        exportBooksButton.disableProperty().bind(task.runningProperty());
+        exportProgressBox.visibleProperty().bind(task.runningProperty());
+        exportProgressBar.progressProperty().bind(task.progressProperty());
+        cancelExportBtn.setOnAction(e -> task.cancel(false));
+
+        task.setOnSucceeded(e -> fileOperationsController.showInformation("Export successful!"));
+        task.setOnCancelled(e -> fileOperationsController.showInformation("Export cancelled."));
+        task.setOnFailed(e -> {
+            task.getException().printStackTrace();
+            fileOperationsController.showError("Export Error", "Export failed", task.getException().getMessage());
+        });
+
+        Thread worker = new Thread(task, "pdf-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Clustering runs on a snapshot off the FX thread; the review dialog opens when it is done
+    @FXML
+    private void onFindDuplicates() {
+        List<Book> snapshot = new ArrayList<>(booksList);
+        findDuplicatesButton.setDisable(true);
+
+        CompletableFuture.supplyAsync(() -> NearDuplicates.find(snapshot))
+                .whenComplete((clusters, error) -> Platform.runLater(() -> {
+                    findDuplicatesButton.setDisable(false);
+                    if (error != null) {
+                        error.printStackTrace();
+                        fileOperationsController.showError("Duplicate Search", "Failed to compare books",
+                                AsyncDAO.unwrap(error).getMessage());
+                    } else if (clusters.isEmpty()) {
+                        fileOperationsController.showInformation("No near-duplicate books found.");
+                    } else {
+                        DuplicateReviewDialog.show(findDuplicatesButton.getScene().getWindow(), clusters,
+                                (keep, doomed) -> crudOperationsHelper.mergeDuplicates(keep, doomed,
+                                        this::refreshBookViews));
+                    }
+                }));
+    }
+
+    @FXML
+    private void onToggleFuzzy() {
+        useBookTextIndex();
     }
 
     @FXML
@@ -247,17 +452,17 @@ public class MainController {
 
     @FXML
     private void onAddGenre() {
-        crudOperationsHelper.addGenre(this::refreshAllData);
+        crudOperationsHelper.addGenre(this::reloadAllData);
     }
 
     @FXML
     private void onEditGenre() {
-        crudOperationsHelper.editGenre(genresTable, this::refreshAllData);
+        crudOperationsHelper.editGenre(genresTable, this::reloadAllData);
     }
 
     @FXML
     private void onDeleteGenre() {
-        crudOperationsHelper.deleteGenre(genresTable, this::refreshAllData);
+        crudOperationsHelper.deleteGenre(genresTable, this::reloadAllData);
     }
 
     @FXML
@@ -265,12 +470,28 @@ public class MainController {
         exportData(exportGenresButton, genresTable.getItems());
     }
 
+    @FXML
+    private void onExportTopBooks() {
+        try {
+            if (genresList.isEmpty()) {
+                fileOperationsController.showInformation("No data to export.");
+                return;
+            }
+
+            boolean ok = PDFExporter.promptAndExportLeaderboards(exportTopBooksButton.getScene().getWindow(),
+                    genresList, subGenresList, bookLeaderboards);
+            if (ok)
+                fileOperationsController.showInformation("Export successful!");
+
+        } catch (Exception e) {
+            fileOperationsController.showError("Export Error", "Export failed", e.getMessage());
+        }
+    }
+
     @FXML
     private void onReloadGenres() {
         if (!confirmReload("Genres", reloadGenresButton)) return;
-        CSVLoader.reloadGenres(genreDataAccess);
-        refreshAllData();
-        fileOperationsController.showInformation("Genres reloaded successfully!");
+        reloadFromCSV("Genres", () -> CSVLoader.reloadGenres(genreDataAccess));
     }
 
     @FXML
@@ -280,17 +501,17 @@ public class MainController {
 
     @FXML
     private void onAddSubGenre() {
-        crudOperationsHelper.addSubGenre(this::refreshAllData);
+        crudOperationsHelper.addSubGenre(this::reloadAllData);
     }
 
     @FXML
     private void onEditSubGenre() {
-        crudOperationsHelper.editSubGenre(subGenresTable, this::refreshAllData);
+        crudOperationsHelper.editSubGenre(subGenresTable, this::reloadAllData);
     }
 
     @FXML
     private void onDeleteSubGenre() {
-        crudOperationsHelper.deleteSubGenre(subGenresTable, this::refreshAllData);
+        crudOperationsHelper.deleteSubGenre(subGenresTable, this::reloadAllData);
     }
 
     @FXML
@@ -301,29 +522,75 @@ public class MainController {
     @FXML
     private void onReloadSubGenres() {
         if (!confirmReload("Sub-Genres", reloadSubGenresButton)) return;
-        CSVLoader.reloadSubGenres(subGenreDataAccess, genreDataAccess);
-        refreshAllData();
-        fileOperationsController.showInformation("Sub-Genres reloaded successfully!");
+        reloadFromCSV("Sub-Genres", () -> CSVLoader.reloadSubGenres(subGenreDataAccess));
     }
 
-    private void refreshAllData() {
-        booksList.setAll(bookDataAccess.getAll());
+    // After a book add/edit/delete: the row and StatsStore are already patched, only the derived views follow
+    private void refreshBookViews() {
+        updateRangeBounds();
+        refreshGenreStatistics(new ArrayList<>(genresList));
+        refreshSubGenreStatistics(new ArrayList<>(subGenresList));
+    }
+
+    // After bulk imports and genre/sub-genre writes, which can move or drop many books
+    private void reloadAllData() {
+        if (pendingLoad != null) pendingLoad.cancel(false);
+
+        CompletableFuture<LoadedData> load = AsyncDAO.supply(this::fetchData);
+        pendingLoad = load;
+
+        load.whenComplete((data, error) -> {
+            if (load.isCancelled()) return; // superseded by a newer refresh
+
+            pendingLoad = null;
+            if (error != null) {
+                error.printStackTrace();
+                fileOperationsController.showError("Database Error", "Failed to load data", error.getMessage());
+                return;
+            }
+            applyData(data);
+        });
+    }
+
+    // Database executor: every JDBC call of a refresh happens here
+    private LoadedData fetchData() {
+        List<Book> books = new ArrayList<>();
+        bookDataAccess.forEachPage(BOOK_PAGE_SIZE, books::addAll);
+
+        List<Genre> genres = genreDataAccess.getAll();
+        List<SubGenre> subGenres = subGenreDataAccess.getAll();
+
+        // bring the dictionary up to date so the refreshed cells show current genre names
+        GenreDictionary.loadIfStale();
+
+        return new LoadedData(books, genres, subGenres);
+    }
+
+    // FX thread: in-memory work only
+    private void applyData(LoadedData data) {
+        syncBooks(data.books);
+        updateRangeBounds();
+        StatsStore.seed(booksList);
+        // search index footprint, logged once after the first load
+        if (!memoryReported) {
+            memoryReported = true;
+            System.out.println(bookSearchIndex.memoryReport());
+        }
         bookTableController.refreshItems(booksList);
-        refreshBookCaches();
 
         if (bookSearchController != null) {
             bookSearchController.updateFilteredList(bookTableController.getFiltered());
             bookSearchController.refreshFilters();
         }
 
-        refreshGenreStatistics();
+        refreshGenreStatistics(data.genres);
         genreTableController.refreshItems(genresList);
 
         if (genreSearchController != null) {
             genreSearchController.updateFilteredList(genreTableController.getFiltered());
         }
 
-        refreshSubGenreStatistics();
+        refreshSubGenreStatistics(data.subGenres);
         subGenreTableController.refreshItems(subGenresList);
 
         if (subGenreSearchController != null) {
@@ -331,10 +598,155 @@ public class MainController {
         }
     }
 
-    private void refreshBookCaches() {
-        for (Book b : booksList) {
-            b.refreshResolveCache();
+    /**
+     * Applies a freshly loaded book list as a minimal set of edits, so listeners such
+     * as the search index only see the rows that changed. Both lists are in id order.
+     */
+    private void syncBooks(List<Book> fresh) {
+        if (booksList.isEmpty() || countChanges(fresh) > MAX_PATCHED_BOOKS) {
+            booksList.setAll(fresh);
+            return;
+        }
+
+        int i = 0, j = 0;
+        while (j < fresh.size()) {
+            Book next = fresh.get(j);
+            if (i == booksList.size()) {
+                booksList.addAll(fresh.subList(j, fresh.size()));
+                return;
+            }
+
+            Book current = booksList.get(i);
+            if (current.getId() == next.getId()) {
+                if (!current.sameValues(next)) booksList.set(i, next);
+                i++;
+                j++;
+            } else if (current.getId() < next.getId()) {
+                booksList.remove(i);        // deleted
+            } else {
+                booksList.add(i++, next);   // inserted
+                j++;
+            }
+        }
+        if (i < booksList.size()) booksList.remove(i, booksList.size());
+    }
+
+    // Same merge walk as syncBooks, counting instead of editing
+    private int countChanges(List<Book> fresh) {
+        int changes = 0, i = 0, j = 0;
+        while (i < booksList.size() && j < fresh.size()) {
+            Book current = booksList.get(i);
+            Book next = fresh.get(j);
+            if (current.getId() == next.getId()) {
+                if (!current.sameValues(next)) changes++;
+                i++;
+                j++;
+            } else if (current.getId() < next.getId()) {
+                changes++;
+                i++;
+            } else {
+                changes++;
+                j++;
+            }
+        }
+        return changes + (booksList.size() - i) + (fresh.size() - j);
+    }
+
+    private void reloadFromCSV(String entityType, Runnable reload) {
+        AsyncDAO.run(reload).whenComplete((v, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                fileOperationsController.showError("Reload Error", "Failed to reload " + entityType, error.getMessage());
+                return;
+            }
+            reloadAllData();
+            fileOperationsController.showInformation(entityType + " reloaded successfully!");
+        });
+    }
+
+    private void useBookTextIndex() {
+        if (fuzzySearchToggle.isSelected()) {
+            bookSearchController.useTextIndex(Book::getId, this::fuzzyMatcher);
+        } else {
+            bookTableController.setDefaultOrder(null);
+            bookSearchController.useTextIndex(Book::getId, bookSearchIndex::search);
+        }
+    }
+
+    // Fuzzy hits filter the table and, until a column is sorted, order it by relevance
+    private BitSet fuzzyMatcher(String query) {
+        BookSearchIndex.Ranking ranking = bookSearchIndex.fuzzy(query);
+        bookTableController.setDefaultOrder(ranking.order());
+        return ranking.ids();
+    }
+
+    // A patch of many rows fires many changes; the summary is computed once after them
+    private void queueBooksSummary() {
+        if (summaryQueued) return;
+        summaryQueued = true;
+        Platform.runLater(() -> {
+            summaryQueued = false;
+            updateBooksSummary();
+        });
+    }
+
+    // Ids inside every narrowed slider range, each found by binary search in a sorted column; null when none is narrowed
+    private BitSet rangeMatches() {
+        BitSet ids = null;
+        ids = narrow(ids, priceFilter, BookOrder.Key.PRICE);
+        ids = narrow(ids, ratingFilter, BookOrder.Key.RATING);
+        ids = narrow(ids, ratedFilter, BookOrder.Key.NUM_RATED);
+        return ids;
+    }
+
+    private BitSet narrow(BitSet ids, RangeFilterController filter, BookOrder.Key key) {
+        if (filter == null || !filter.isActive()) return ids;
+        BitSet inRange = bookOrder.range(key, filter.getLow(), filter.getHigh());
+        if (ids == null) return inRange;
+        ids.and(inRange);
+        return ids;
+    }
+
+    // Slider bounds follow the loaded data: the ends of the sorted columns
+    private void updateRangeBounds() {
+        if (priceFilter == null) return;
+        priceFilter.setBounds(bookOrder.min(BookOrder.Key.PRICE), bookOrder.max(BookOrder.Key.PRICE));
+        ratingFilter.setBounds(bookOrder.min(BookOrder.Key.RATING), bookOrder.max(BookOrder.Key.RATING));
+        ratedFilter.setBounds(bookOrder.min(BookOrder.Key.NUM_RATED), bookOrder.max(BookOrder.Key.NUM_RATED));
+    }
+
+    // Count and averages of the rows currently shown, aggregated over the column store
+    private void updateBooksSummary() {
+        List<Book> shown = bookTableController.getFiltered();
+        BitSet ids = null;
+        if (shown.size() != booksList.size()) {
+            ids = new BitSet();
+            for (Book b : shown) ids.set(b.getId());
+        }
+
+        BookColumns.Summary s = bookColumns.summarize(ids);
+        booksSummaryLabel.setText(s.count == 0 ? "No books"
+                : String.format("%,d books · Avg Price: ₹%.2f · Avg Rating: %.2f",
+                        s.count, s.avgPrice(), s.avgRating()));
+    }
+
+    // A picked genre or sub-genre name becomes a filter instead of search text
+    private boolean applyFacetSuggestion(String label) {
+        for (Map.Entry<String, List<String>> e : GenreDictionary.subGenreNamesByGenre().entrySet()) {
+            if (e.getKey().equalsIgnoreCase(label)) {
+                filterGenreBox.getCheckModel().check(e.getKey());
+                return true;
+            }
+            for (String sub : e.getValue()) {
+                if (sub.equalsIgnoreCase(label)) {
+                    // checking the genre first fills the sub-genre box
+                    filterGenreBox.getCheckModel().check(e.getKey());
+                    filterSubGenreBox.getCheckModel().check(sub);
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     private void displayGenreDetails(Genre genre) {
@@ -343,7 +755,7 @@ public class MainController {
             return;
         }
 
-        GenreDAO.GenreStat stats = genreStatistics.get(genre.getName());
+        StatsStore.Aggregate stats = StatsStore.genre(genre.getId());
 
         List<String> related = subGenresList.stream()
                 .filter(sg -> sg.getGenreId() == genre.getId())
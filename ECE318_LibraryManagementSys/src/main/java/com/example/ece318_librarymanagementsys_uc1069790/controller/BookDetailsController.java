@@ -1,7 +1,6 @@
 package com.example.ece318_librarymanagementsys.controller;
 
 import com.example.ece318_librarymanagementsys.controller.DetailsPanelController;
-import com.example.ece318_librarymanagementsys.database.*;
 import com.example.ece318_librarymanagementsys.model.*;
 import javafx.application.HostServices;
 import javafx.scene.control.*;
@@ -23,10 +22,6 @@ public class BookDetailsController extends DetailsPanelController<Book> {
     private final Label lblRatingsCount;
     private final Hyperlink lblUrl;
 
-    // DAOs for resolving foreign keys
-    private final GenreDAO genreDAO;
-    private final SubGenreDAO subGenreDAO;
-
     public BookDetailsController(HBox contentArea,
                                  VBox detailsPanel,
                                  Button closeButton,
@@ -51,10 +46,6 @@ public class BookDetailsController extends DetailsPanelController<Book> {
         this.lblRating = lblRating;
         this.lblRatingsCount = lblRatingsCount;
         this.lblUrl = lblUrl;
-
-        // Initialize DAOs
-        this.genreDAO = new GenreDAO();
-        this.subGenreDAO = new SubGenreDAO();
     }
 
     @Override
@@ -63,11 +54,8 @@ public class BookDetailsController extends DetailsPanelController<Book> {
         lblAuthor.setText("Author: " + safeText(book.getAuthor()));
 
         // Resolve genre and subgenre by ID for accuracy
-        Genre genre = genreDAO.findById(book.getGenreId());
-        SubGenre subGenre = subGenreDAO.findById(book.getSubGenreId());
-
-        lblGenre.setText("Genre: " + (genre != null ? genre.getName() : book.getMainGenre()));
-        lblSubGenre.setText("Sub-Genre: " + (subGenre != null ? subGenre.getName() : book.getSubGenre()));
+        lblGenre.setText("Genre: " + book.getResolvedMainGenre());
+        lblSubGenre.setText("Sub-Genre: " + book.getResolvedSubGenre());
         lblType.setText("Type: " + safeText(book.getType()));
         lblPrice.setText(String.format("Price: ₹%.2f", book.getPrice()));
         lblRating.setText("Rating: " + formatNumber(book.getRating(), "%.1f"));
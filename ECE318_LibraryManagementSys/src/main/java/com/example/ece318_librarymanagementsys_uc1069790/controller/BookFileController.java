@@ -1,9 +1,13 @@
 package com.example.ece318_librarymanagementsys.controller;
 
 import com.example.ece318_librarymanagementsys.database.BookDAO;
-import com.example.ece318_librarymanagementsys.model.*;
+import com.example.ece318_librarymanagementsys.model.Book;
+import com.example.ece318_librarymanagementsys.util.BookImportPipeline;
+import com.example.ece318_librarymanagementsys.util.BookSync;
 import com.example.ece318_librarymanagementsys.util.CSVLoader;
+import com.example.ece318_librarymanagementsys.util.ImportProgress;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.stage.FileChooser;
@@ -11,23 +15,27 @@ import javafx.stage.Window;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 // Handles file operations including CSV
 public class BookFileController {
+    private static final long PIPELINE_THRESHOLD_BYTES = 32L * 1024 * 1024;
+
     private final BookDAO bookDAO;
     private final ObservableList<Book> books;
-    private final List<Genre> genres;
-    private final List<SubGenre> subGenres;
 
-    public BookFileController(BookDAO bookDAO, ObservableList<Book> books,
-                              List<Genre> genres, List<SubGenre> subGenres) {
+    public BookFileController(BookDAO bookDAO, ObservableList<Book> books) {
         this.bookDAO = bookDAO;
         this.books = books;
-        this.genres = genres;
-        this.subGenres = subGenres;
     }
 
-    public void loadBooksFromCSV(Window ownerWindow) {
+    /**
+     * Imports a CSV file on a background thread behind a progress dialog. The import
+     * is one transaction: cancelling rolls it back. Only counts come back, so
+     * {@code onImported} re-reads the books once the import is committed.
+     */
+    public void loadBooksFromCSV(Window ownerWindow, Runnable onImported) {
         String message = """
             This will add books from the CSV file to the database.
 
@@ -41,28 +49,107 @@ public class BookFileController {
         File file = selectCSVFile(ownerWindow);
         if (file == null) return;
 
-        try {
+        runInBackground(ownerWindow, file, progress -> {
             // Clear books if database is empty or user wants fresh start
-            if (bookDAO.getAll().isEmpty()) {
+            if (bookDAO.findPage(Integer.MIN_VALUE, 1).isEmpty()) {
                 bookDAO.clearBooks(); // This resets AUTO_INCREMENT
             }
+            return loadAndPersistBooks(file, progress);
+        }, result -> {
+            if (result.inserted > 0) onImported.run();
+            showInformation("Books loaded successfully!\n\nInserted: " + result.inserted
+                    + "\nSkipped (duplicates): " + result.skipped);
+        });
+    }
 
-            loadAndPersistBooks(file);
-            books.setAll(bookDAO.getAll());
-            showInformation("Books loaded successfully!");
+    /**
+     * Re-imports an updated export incrementally (see {@link BookSync}): new rows are
+     * inserted, changed rows updated, and books missing from the file optionally
+     * deleted. {@code onSynced} runs on the FX thread after the commit.
+     */
+    public void syncBooksFromCSV(Window ownerWindow, Runnable onSynced) {
+        ButtonType sync = new ButtonType("Sync");
+        ButtonType syncAndDelete = new ButtonType("Sync and Delete Missing");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, """
+            This will update the database from a newer export of the books CSV.
+
+            New books are added and changed prices, ratings and counts are updated;
+            unchanged books are not touched. Books missing from the file are kept
+            unless you choose to delete them.
+
+            Books that were never linked to an export (added in the app, or stored
+            before syncing and changed since) are never reported missing or deleted.
+            """, sync, syncAndDelete, ButtonType.CANCEL);
+        alert.setTitle("Sync Books from CSV");
+        alert.setHeaderText(null);
+        if (ownerWindow != null) alert.initOwner(ownerWindow);
 
-        } catch (Exception e) {
-            handleLoadError(e);
-        }
+        ButtonType choice = alert.showAndWait().orElse(ButtonType.CANCEL);
+        if (choice == ButtonType.CANCEL) return;
+        boolean deleteMissing = choice == syncAndDelete;
+
+        File file = selectCSVFile(ownerWindow);
+        if (file == null) return;
+
+        runInBackground(ownerWindow, file,
+                progress -> new BookSync(bookDAO).run(file, deleteMissing, progress),
+                diff -> {
+                    onSynced.run();
+                    showInformation("Books synced successfully!\n\n" + diff);
+                });
     }
 
-    private void loadAndPersistBooks(File file) throws Exception {
-        List<Book> booksFromCsv = CSVLoader.loadBooks(file, genres, subGenres);
+    // Work of one import, run on the background thread
+    private interface ImportWork<T> {
+        T run(ImportProgress progress) throws Exception;
+    }
+
+    // Runs an import behind its progress dialog; cancelling rolls it back and reports that nothing changed
+    private <T> void runInBackground(Window ownerWindow, File file, ImportWork<T> work, Consumer<T> onDone) {
+        ImportProgress progress = new ImportProgress(file.length());
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.run(progress);
+            }
+        };
+
+        ImportProgressDialog dialog = ImportProgressDialog.open(ownerWindow, file.getName(), progress);
+
+        task.setOnSucceeded(e -> {
+            dialog.close();
+            onDone.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            dialog.close();
+            if (task.getException() instanceof CancellationException) {
+                showInformation("Import cancelled. Nothing was changed.");
+            } else {
+                handleLoadError(task.getException());
+            }
+        });
 
-        for (Book book : booksFromCsv) {
-            bookDAO.insert(book);
+        Thread worker = new Thread(task, "csv-import");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Background thread
+    private BookDAO.ImportResult loadAndPersistBooks(File file, ImportProgress progress) throws Exception {
+        // Large dumps go through the parallel pipeline instead of a full List<Book>
+        if (file.length() >= PIPELINE_THRESHOLD_BYTES) {
+            return new BookImportPipeline(bookDAO).run(file, progress);
         }
-        bookDAO.printSkippedCount();
+
+        List<Book> booksFromCsv = CSVLoader.loadBooks(file);
+        progress.parsed(booksFromCsv.size(), file.length());
+        progress.parsingDone();
+        progress.checkCancelled();
+
+        return bookDAO.insertAll(booksFromCsv, r -> {
+            progress.stored(r.inserted, r.skipped);
+            progress.checkCancelled();
+        });
     }
 
     // Opens file chooser
@@ -76,7 +163,7 @@ public class BookFileController {
     }
 
     // error during book loading
-    private void handleLoadError(Exception e) {
+    private void handleLoadError(Throwable e) {
         e.printStackTrace();
         showError("Load Error", "Failed to Load Books", "Error loading CSV: " + e.getMessage());
     }
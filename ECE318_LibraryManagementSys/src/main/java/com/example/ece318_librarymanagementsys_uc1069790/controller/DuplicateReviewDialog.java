@@ -0,0 +1,156 @@
+package com.example.ece318_librarymanagementsys.controller;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import com.example.ece318_librarymanagementsys.search.NearDuplicates;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+// Walks the user through near-duplicate clusters; merging folds the selected copies into the first one kept
+public class DuplicateReviewDialog {
+
+    private static final ButtonType MERGE = new ButtonType("Merge", ButtonBar.ButtonData.APPLY);
+    private static final ButtonType SKIP = new ButtonType("Skip", ButtonBar.ButtonData.OTHER);
+
+    private final ListView<NearDuplicates.Cluster> clusterList = new ListView<>();
+    // Selection by index: exact copies are equal Books, so item-keyed checks would tie them together
+    private final ListView<Book> bookList = new ListView<>();
+    private final Label hint = new Label();
+
+    // Merges the given copies into the kept book; the cluster leaves the list once it completes normally
+    private final BiFunction<Book, List<Book>, CompletableFuture<Void>> merge;
+
+    private DuplicateReviewDialog(List<NearDuplicates.Cluster> clusters,
+                                  BiFunction<Book, List<Book>, CompletableFuture<Void>> merge) {
+        this.merge = merge;
+
+        clusterList.setItems(FXCollections.observableArrayList(clusters));
+        clusterList.setPrefWidth(320);
+        clusterList.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(NearDuplicates.Cluster c, boolean empty) {
+                super.updateItem(c, empty);
+                setText(empty || c == null ? null : c.books.size() + "× " + c.keep().getTitle());
+            }
+        });
+        clusterList.getSelectionModel().selectedItemProperty()
+                .addListener((obs, oldVal, newVal) -> showCluster(newVal));
+
+        bookList.setPrefWidth(560);
+        bookList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        bookList.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(Book b, boolean empty) {
+                super.updateItem(b, empty);
+                setText(empty || b == null ? null : describe(b));
+            }
+        });
+        hint.setWrapText(true);
+    }
+
+    /** Opens the review window and blocks until it is closed. */
+    public static void show(Window owner, List<NearDuplicates.Cluster> clusters,
+                            BiFunction<Book, List<Book>, CompletableFuture<Void>> merge) {
+        new DuplicateReviewDialog(clusters, merge).open(owner);
+    }
+
+    private void open(Window owner) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Near-Duplicate Books");
+        dialog.setHeaderText(clusterList.getItems().size() + " groups of similar books. "
+                + "On merge, selected copies are deleted and their ratings added to the first copy kept.");
+        if (owner != null) dialog.initOwner(owner);
+        dialog.setResizable(true);
+
+        VBox right = new VBox(8, hint, bookList);
+        VBox.setVgrow(bookList, Priority.ALWAYS);
+        HBox content = new HBox(10, clusterList, right);
+        HBox.setHgrow(right, Priority.ALWAYS);
+        content.setPadding(new Insets(10));
+        content.setPrefHeight(480);
+
+        DialogPane pane = dialog.getDialogPane();
+        pane.setContent(content);
+        pane.getButtonTypes().addAll(MERGE, SKIP, ButtonType.CLOSE);
+
+        // Merge and Skip act on the current cluster and keep the dialog open
+        pane.lookupButton(MERGE).addEventFilter(ActionEvent.ACTION, e -> {
+            e.consume();
+            merge();
+        });
+        pane.lookupButton(SKIP).addEventFilter(ActionEvent.ACTION, e -> {
+            e.consume();
+            removeCurrent();
+        });
+        pane.lookupButton(MERGE).disableProperty()
+                .bind(clusterList.getSelectionModel().selectedItemProperty().isNull());
+        pane.lookupButton(SKIP).disableProperty()
+                .bind(clusterList.getSelectionModel().selectedItemProperty().isNull());
+
+        clusterList.getSelectionModel().selectFirst();
+        dialog.showAndWait();
+    }
+
+    private void showCluster(NearDuplicates.Cluster cluster) {
+        bookList.getItems().setAll(cluster == null ? List.of() : cluster.books);
+        if (cluster == null) {
+            hint.setText("");
+            return;
+        }
+
+        // suggest keeping the most rated copy, which comes first
+        bookList.getSelectionModel().selectRange(1, cluster.books.size());
+        hint.setText("Keeping \"" + cluster.keep().getTitle() + "\" (most ratings), which takes over "
+                + "the ratings of the selected copies. Ctrl-click to deselect any copy that is a different book.");
+    }
+
+    private void merge() {
+        NearDuplicates.Cluster cluster = clusterList.getSelectionModel().getSelectedItem();
+        if (cluster == null) return;
+
+        List<Book> doomed = new ArrayList<>(bookList.getSelectionModel().getSelectedItems());
+        if (doomed.isEmpty()) {
+            removeCurrent();
+            return;
+        }
+        if (doomed.size() == cluster.books.size()) {
+            hint.setText("Leave at least one copy unselected to keep it.");
+            return;
+        }
+
+        // the first unselected copy, i.e. the most rated one left, absorbs the others
+        Book keep = null;
+        for (int i = 0; i < cluster.books.size() && keep == null; i++) {
+            if (!bookList.getSelectionModel().isSelected(i)) keep = cluster.books.get(i);
+        }
+
+        clusterList.setDisable(true);
+        merge.apply(keep, doomed).whenComplete((v, error) -> {
+            clusterList.setDisable(false);
+            if (error == null) removeCurrent();
+        });
+    }
+
+    private void removeCurrent() {
+        int i = clusterList.getSelectionModel().getSelectedIndex();
+        if (i < 0) return;
+        clusterList.getItems().remove(i);
+        clusterList.getSelectionModel().select(Math.min(i, clusterList.getItems().size() - 1));
+    }
+
+    private static String describe(Book b) {
+        return String.format("%s — %s | %s › %s | %s | %.1f★ (%,d) | ₹%.2f",
+                b.getTitle(), b.getAuthor(), b.getMainGenre(), b.getSubGenre(),
+                b.getType(), b.getRating(), b.getNumRated(), b.getPrice());
+    }
+}
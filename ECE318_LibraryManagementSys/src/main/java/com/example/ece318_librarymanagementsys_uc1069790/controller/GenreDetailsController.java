@@ -1,13 +1,17 @@
 package com.example.ece318_librarymanagementsys.controller;
 
-import com.example.ece318_librarymanagementsys.database.GenreDAO;
+import com.example.ece318_librarymanagementsys.database.GenreDictionary;
+import com.example.ece318_librarymanagementsys.model.Book;
 import com.example.ece318_librarymanagementsys.model.Genre;
+import com.example.ece318_librarymanagementsys.search.BookLeaderboards;
+import com.example.ece318_librarymanagementsys.util.StatsStore;
 import javafx.application.HostServices;
 import javafx.collections.FXCollections;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -20,10 +24,15 @@ public class GenreDetailsController extends DetailsPanelController<Genre> {
     private final Label lblAvgPrice;
     private final ListView<String> lvSubGenres;
     private final Hyperlink lblUrl;
+    private final Label lblTopBooks;
+    private final ChoiceBox<BookLeaderboards.Board> cbTopBoard;
+    private final ListView<String> lvTopBooks;
+    private final BookLeaderboards leaderboards;
 
     // Statistics data holder
-    private GenreDAO.GenreStat currentStats;
+    private StatsStore.Aggregate currentStats;
     private List<String> currentSubGenres;
+    private Genre currentGenre;
 
     public GenreDetailsController(HBox contentArea,
                                   VBox detailsPanel,
@@ -34,7 +43,11 @@ public class GenreDetailsController extends DetailsPanelController<Genre> {
                                   Label lblAvgRating,
                                   Label lblAvgPrice,
                                   ListView<String> lvSubGenres,
-                                  Hyperlink lblUrl) {
+                                  Hyperlink lblUrl,
+                                  Label lblTopBooks,
+                                  ChoiceBox<BookLeaderboards.Board> cbTopBoard,
+                                  ListView<String> lvTopBooks,
+                                  BookLeaderboards leaderboards) {
         super(contentArea, detailsPanel, closeButton, table);
 
         this.lblName = lblName;
@@ -43,11 +56,23 @@ public class GenreDetailsController extends DetailsPanelController<Genre> {
         this.lblAvgPrice = lblAvgPrice;
         this.lvSubGenres = lvSubGenres;
         this.lblUrl = lblUrl;
+        this.lblTopBooks = lblTopBooks;
+        this.cbTopBoard = cbTopBoard;
+        this.lvTopBooks = lvTopBooks;
+        this.leaderboards = leaderboards;
+
+        cbTopBoard.getItems().setAll(BookLeaderboards.Board.values());
+        cbTopBoard.getSelectionModel().selectFirst();
+        cbTopBoard.valueProperty().addListener((obs, oldVal, newVal) -> showTopBooks());
+        // selecting a sub-genre narrows the leaderboard to it
+        lvSubGenres.getSelectionModel().selectedItemProperty()
+                .addListener((obs, oldVal, newVal) -> showTopBooks());
     }
 
-    public void showWithStats(Genre genre, GenreDAO.GenreStat stats, List<String> subGenres) {
+    public void showWithStats(Genre genre, StatsStore.Aggregate stats, List<String> subGenres) {
         this.currentStats = stats;
         this.currentSubGenres = subGenres;
+        this.currentGenre = genre;
         showEntity(genre);
     }
 
@@ -55,27 +80,63 @@ public class GenreDetailsController extends DetailsPanelController<Genre> {
     protected void populateDetails(Genre genre) {
         lblName.setText(safeText(genre.getName()));
 
-        int totalBooks = currentStats != null ? currentStats.totalBooks : 0;
-        double avgRating = currentStats != null ? currentStats.avgRating : 0.0;
-        double avgPrice = currentStats != null ? currentStats.avgPrice : 0.0;
-
-        lblTotalBooks.setText("Total Books: " + totalBooks);
-        lblAvgRating.setText(String.format("Avg Rating: %.2f", avgRating));
-        lblAvgPrice.setText(String.format("Avg Price: ₹%.2f", avgPrice));
+        if (currentStats != null && currentStats.count > 0) {
+            lblTotalBooks.setText("Total Books: " + currentStats.count);
+            lblAvgRating.setText(String.format("Avg Rating: %.2f (%.1f – %.1f)",
+                    currentStats.avgRating, currentStats.minRating, currentStats.maxRating));
+            lblAvgPrice.setText(String.format("Avg Price: ₹%.2f (₹%.2f – ₹%.2f)",
+                    currentStats.avgPrice, currentStats.minPrice, currentStats.maxPrice));
+        } else {
+            lblTotalBooks.setText("Total Books: 0");
+            lblAvgRating.setText(String.format("Avg Rating: %.2f", 0.0));
+            lblAvgPrice.setText(String.format("Avg Price: ₹%.2f", 0.0));
+        }
 
         List<String> subGenreList = currentSubGenres != null ? currentSubGenres : List.of();
         lvSubGenres.setItems(FXCollections.observableArrayList(subGenreList));
+        showTopBooks();
 
         setupHyperlink(lblUrl, "View on Amazon", genre.getUrl());
     }
 
+    // Leaderboard of the genre, or of the sub-genre picked in the list
+    private void showTopBooks() {
+        if (currentGenre == null) return;
+
+        BookLeaderboards.Board board = cbTopBoard.getValue();
+        String subGenre = lvSubGenres.getSelectionModel().getSelectedItem();
+        List<Book> top = subGenre == null
+                ? leaderboards.genreTop(currentGenre.getId(), board)
+                : leaderboards.subGenreTop(GenreDictionary.subGenreId(currentGenre.getId(), subGenre), board);
+
+        lblTopBooks.setText("Top books in " + (subGenre == null ? safeText(currentGenre.getName()) : subGenre) + ":");
+
+        List<String> rows = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            rows.add((i + 1) + ". " + safeText(top.get(i).getTitle()) + " — " + describe(board, top.get(i)));
+        }
+        lvTopBooks.setItems(FXCollections.observableArrayList(rows));
+    }
+
+    private String describe(BookLeaderboards.Board board, Book b) {
+        switch (board) {
+            case MOST_REVIEWED: return String.format("%,d ratings", b.getNumRated());
+            case WEIGHTED: return String.format("%.2f (%.1f★, %,d)", leaderboards.weightedRating(b), b.getRating(), b.getNumRated());
+            case CHEAPEST: return String.format("₹%.2f", b.getPrice());
+            default: return String.format("%.1f★ (%,d)", b.getRating(), b.getNumRated());
+        }
+    }
+
     public static GenreDetailsController create(
             HBox area, VBox panel, Button close, TableView<Genre> table,
             Label name, Label books, Label rating, Label price,
-            ListView<String> subs, Hyperlink url, HostServices hs) {
+            ListView<String> subs, Hyperlink url,
+            Label topLabel, ChoiceBox<BookLeaderboards.Board> topBoard, ListView<String> topBooks,
+            BookLeaderboards leaderboards, HostServices hs) {
 
         GenreDetailsController controller = new GenreDetailsController(
-                area, panel, close, table, name, books, rating, price, subs, url
+                area, panel, close, table, name, books, rating, price, subs, url,
+                topLabel, topBoard, topBooks, leaderboards
         );
         controller.setHostServices(hs);
         return controller;
@@ -0,0 +1,104 @@
+package com.example.ece318_librarymanagementsys.controller;
+
+import com.example.ece318_librarymanagementsys.util.ImportProgress;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+// Progress of a running CSV import, polled from its counters; Cancel asks the workers to roll back
+public class ImportProgressDialog {
+
+    private static final Duration REFRESH = Duration.millis(250);
+
+    private final ImportProgress progress;
+    private final Dialog<ButtonType> dialog = new Dialog<>();
+    private final ProgressBar bar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+    private final Label counts = new Label();
+    private final Label rate = new Label();
+    private final Timeline refresh;
+
+    // Set once the import has ended, so the dialog may really close
+    private boolean finished = false;
+
+    private ImportProgressDialog(Window owner, String fileName, ImportProgress progress) {
+        this.progress = progress;
+
+        dialog.setTitle("Importing Books");
+        dialog.setHeaderText("Importing " + fileName);
+        if (owner != null) dialog.initOwner(owner);
+        // no refresh or book edit may run while the import or sync holds its transactions
+        dialog.initModality(Modality.APPLICATION_MODAL);
+
+        bar.setPrefWidth(360);
+        VBox content = new VBox(8, bar, counts, rate);
+        content.setPadding(new Insets(10));
+
+        DialogPane pane = dialog.getDialogPane();
+        pane.setContent(content);
+        pane.getButtonTypes().add(ButtonType.CANCEL);
+
+        // Cancel and the window close button only request the stop; the import closes the dialog
+        Node cancel = pane.lookupButton(ButtonType.CANCEL);
+        cancel.addEventFilter(ActionEvent.ACTION, e -> {
+            e.consume();
+            requestCancel(cancel);
+        });
+        dialog.setOnCloseRequest(e -> {
+            if (!finished) {
+                e.consume();
+                requestCancel(cancel);
+            }
+        });
+
+        refresh = new Timeline(new KeyFrame(REFRESH, e -> update()));
+        refresh.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * Shows the dialog without blocking the caller; it is modal, so the other windows
+     * take no input until {@link #close()} is called when the import ends.
+     */
+    public static ImportProgressDialog open(Window owner, String fileName, ImportProgress progress) {
+        ImportProgressDialog d = new ImportProgressDialog(owner, fileName, progress);
+        d.update();
+        d.refresh.play();
+        d.dialog.show();
+        return d;
+    }
+
+    public void close() {
+        finished = true;
+        refresh.stop();
+        dialog.close();
+    }
+
+    private void requestCancel(Node cancel) {
+        progress.cancel();
+        cancel.setDisable(true);
+        dialog.setHeaderText("Cancelling, rolling back…");
+    }
+
+    private void update() {
+        double f = progress.fraction();
+        bar.setProgress(f < 0 ? ProgressBar.INDETERMINATE_PROGRESS : f);
+
+        counts.setText(String.format("Parsed: %,d · Written: %,d · Skipped: %,d",
+                progress.getParsed(), progress.getWritten(), progress.getSkipped()));
+
+        long eta = progress.etaSeconds();
+        rate.setText(String.format("%,.0f rows/s · ETA: %s", progress.rowsPerSecond(),
+                eta < 0 ? "estimating…" : String.format("%d:%02d", eta / 60, eta % 60)));
+    }
+}
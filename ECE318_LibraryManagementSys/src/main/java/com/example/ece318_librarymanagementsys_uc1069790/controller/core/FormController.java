@@ -13,7 +13,7 @@ import javafx.stage.*;
 
 import java.io.*;
 import java.util.List;
-import java.util.Map;
+import java.util.function.BiConsumer;
 
 public class FormController {
 
@@ -52,6 +52,9 @@ public class FormController {
 
     private Object entity;
     private Runnable refreshCallback;
+    // Book forms: told (before, after) on the FX thread once the write is confirmed; before is null for a new book
+    private BiConsumer<Book, Book> bookSavedCallback;
+    private Book savedBefore, savedAfter;
     private FormType type;
 
     private enum FormType { GENRE, SUBGENRE, BOOK }
@@ -92,23 +95,27 @@ public class FormController {
         numBooksField.setDisable(true);
         numBooksField.setFocusTraversable(false);
 
-        // Load main genres
-        mainGenreCombo.setItems(FXCollections.observableArrayList(genreDAO.getAllGenreNames()));
-
         if (existing != null && existing.getId() != 0) {
             nameField.setText(existing.getName());
-
-            Genre g = genreDAO.findById(existing.getGenreId());
-            if (g != null) {
-                mainGenreCombo.setValue(g.getName());
-            }
-
             numBooksField.setText(String.valueOf(existing.getNumBooks()));
             urlFieldSub.setText(existing.getUrl());
-
         } else {
             numBooksField.setText("0");
         }
+
+        // Load main genres; the dictionary may have to reload after a write, so not on the FX thread
+        mainGenreCombo.setDisable(true);
+        AsyncDAO.supply(GenreDictionary::genreNames).thenAccept(names -> {
+            mainGenreCombo.setItems(FXCollections.observableArrayList(names));
+
+            if (existing != null && existing.getId() != 0) {
+                String genreName = GenreDictionary.genreName(existing.getGenreId());
+                if (genreName != null) {
+                    mainGenreCombo.setValue(genreName);
+                }
+            }
+            mainGenreCombo.setDisable(false);
+        });
     }
 
     public void setupAsBook(Book existing) {
@@ -126,23 +133,38 @@ public class FormController {
                 "Hardcover"
         ));
 
-        // Populate Genres
-        List<String> genres = genreDAO.getAllGenreNames();
-        genreCombo.setItems(FXCollections.observableArrayList(genres));
-
-        // Populate SubGenres dynamically
-        Map<String, List<String>> subGenreMap = subGenreDAO.getAllSubGenreNamesDetailed();
-        if (subGenreMap == null || subGenreMap.isEmpty()) {
-            subGenreMap = Map.of();
-        }
-
-        Map<String, List<String>> finalMap = subGenreMap;
-        genreCombo.valueProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal != null && finalMap.containsKey(newVal)) {
-                subGenreCombo.setItems(FXCollections.observableArrayList(finalMap.get(newVal)));
-            } else {
-                subGenreCombo.getItems().clear();
+        // Populate genres and sub-genres once the dictionary is loaded off the FX thread
+        genreCombo.setDisable(true);
+        subGenreCombo.setDisable(true);
+        AsyncDAO.supply(GenreDictionary::subGenreNamesByGenre).thenAccept(finalMap -> {
+            List<String> genres = GenreDictionary.genreNames();
+            genreCombo.setItems(FXCollections.observableArrayList(genres));
+
+            // Populate SubGenres dynamically
+            genreCombo.valueProperty().addListener((obs, oldVal, newVal) -> {
+                if (newVal != null && finalMap.containsKey(newVal)) {
+                    subGenreCombo.setItems(FXCollections.observableArrayList(finalMap.get(newVal)));
+                } else {
+                    subGenreCombo.getItems().clear();
+                }
+            });
+
+            if (existing != null && existing.getId() != 0) {
+                // Set genre by ID
+                String genreName = GenreDictionary.genreName(existing.getGenreId());
+                if (genreName != null) {
+                    genreCombo.setValue(genreName);
+                }
+
+                // Set subgenre by ID
+                String subGenreName = GenreDictionary.subGenreName(existing.getSubGenreId());
+                if (subGenreName != null) {
+                    subGenreCombo.setValue(subGenreName);
+                }
             }
+
+            genreCombo.setDisable(false);
+            subGenreCombo.setDisable(false);
         });
 
         // fill in existing data on edit
@@ -150,19 +172,6 @@ public class FormController {
 
             nameField.setText(existing.getTitle());
             authorField.setText(existing.getAuthor());
-
-            // Set genre by ID
-            Genre g = genreDAO.findById(existing.getGenreId());
-            if (g != null) {
-                genreCombo.setValue(g.getName());
-            }
-
-            // Set subgenre by ID
-            SubGenre sg = subGenreDAO.findById(existing.getSubGenreId());
-            if (sg != null) {
-                subGenreCombo.setValue(sg.getName());
-            }
-
             typeCombo.setValue(existing.getType());
             priceField.setText(String.valueOf(existing.getPrice()));
             ratingField.setText(String.valueOf(existing.getRating()));
@@ -172,26 +181,41 @@ public class FormController {
     }
 
 
+    // Validates on the FX thread, then writes on the database executor; the form stays open until done
     private void saveEntity() {
+        Runnable write;
         try {
-            switch (type) {
+            write = switch (type) {
                 case GENRE -> saveGenre();
                 case SUBGENRE -> saveSubGenre();
                 case BOOK -> saveBook();
+            };
+        } catch (IllegalArgumentException e) {
+            showError("Validation Error", e.getMessage());
+            return;
+        }
+
+        saveBtn.setDisable(true);
+        AsyncDAO.run(write).whenComplete((v, error) -> {
+            saveBtn.setDisable(false);
+
+            if (error instanceof DuplicateBookException) {
+                showError("Duplicate Book", error.getMessage());
+                return;
+            }
+            if (error != null) {
+                showError("Save Error", "An unexpected error occurred: " + error.getMessage());
+                error.printStackTrace();
+                return;
             }
 
+            if (type == FormType.BOOK && bookSavedCallback != null) bookSavedCallback.accept(savedBefore, savedAfter);
             if (refreshCallback != null) refreshCallback.run();
             closeForm();
-
-        } catch (IllegalArgumentException e) {
-            showError("Validation Error", e.getMessage());
-        } catch (Exception e) {
-            showError("Save Error", "An unexpected error occurred: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
-    private void saveGenre() {
+    private Runnable saveGenre() {
         String name = validateNotEmpty(nameField, "Genre name");
         int count = validatePositiveInt(numSubGenresField, "Number of sub-genres");
         String url = validateUrl(urlField, "URL");
@@ -200,14 +224,16 @@ public class FormController {
                 ? new Genre(existing.getId(), name, count, url)
                 : new Genre(0, name, count, url);
 
-        if (g.getId() != 0) {
-            genreDAO.update(g);
-        } else {
-            genreDAO.insert(g);
-        }
+        return () -> {
+            if (g.getId() != 0) {
+                genreDAO.update(g);
+            } else {
+                genreDAO.insert(g);
+            }
+        };
     }
 
-    private void saveSubGenre() {
+    private Runnable saveSubGenre() {
         String name = validateNotEmpty(nameField, "Sub-genre name");
         String mainGenre = mainGenreCombo.getValue();
 
@@ -216,20 +242,22 @@ public class FormController {
 
         int count = validatePositiveInt(numBooksField, "Number of books");
         String url = validateUrl(urlFieldSub, "URL");
-        int genreId = genreDAO.findIdByName(mainGenre);
+        int genreId = GenreDictionary.genreId(mainGenre);
 
         SubGenre sg = (entity instanceof SubGenre existing && existing.getId() != 0)
                 ? new SubGenre(existing.getId(), name, mainGenre, count, url, genreId)
                 : new SubGenre(0, name, mainGenre, count, url, genreId);
-        if (sg.getId() != 0) {
-            subGenreDAO.update(sg);
-        } else {
-            subGenreDAO.insert(sg);
-        }
-        genreDAO.recountSubGenres(genreId);
+        return () -> {
+            if (sg.getId() != 0) {
+                subGenreDAO.update(sg);
+            } else {
+                subGenreDAO.insert(sg);
+            }
+            genreDAO.recountSubGenres(genreId);
+        };
     }
 
-    private void saveBook() {
+    private Runnable saveBook() {
         Book existing = (entity instanceof Book ex && ex.getId() != 0) ? ex : null;
         int oldSub = existing != null ? existing.getSubGenreId() : 0;
 
@@ -253,14 +281,8 @@ public class FormController {
         int numRated = validatePositiveInt(numRatedField, "Number of ratings");
         String url = validateUrl(urlFieldBook, "URL");
 
-        int genreId = genreDAO.findIdByName(mainGenre);
-
-        int subGenreId = subGenreDAO.getAll().stream()
-                .filter(sg -> sg.getGenreId() == genreId)
-                .filter(sg -> sg.getName().equals(subGenre))
-                .mapToInt(SubGenre::getId)
-                .findFirst()
-                .orElse(0);
+        int genreId = GenreDictionary.genreId(mainGenre);
+        int subGenreId = GenreDictionary.subGenreId(genreId, subGenre);
 
         Book book = (existing != null)
                 ? new Book(existing.getId(), title, author, mainGenre, subGenre, typeVal,
@@ -268,19 +290,34 @@ public class FormController {
                 : new Book(0, title, author, mainGenre, subGenre, typeVal,
                 price, rating, numRated, url, genreId, subGenreId);
 
-        if (book.getId() != 0) {
-            bookDAO.update(book);
+        savedBefore = existing;
+        savedAfter = book;
 
-            if (oldSub != subGenreId) {
-                if (oldSub > 0) subGenreDAO.decrementBookCount(oldSub);
-                if (subGenreId > 0) subGenreDAO.incrementBookCount(subGenreId);
-            }
+        // in-memory stats follow on the FX thread, after the write went through
+        return () -> {
+            if (book.getId() != 0) {
+                bookDAO.update(book);
 
-        } else {
-            bookDAO.insert(book);
+                if (oldSub != subGenreId) {
+                    if (oldSub > 0) subGenreDAO.decrementBookCount(oldSub);
+                    if (subGenreId > 0) subGenreDAO.incrementBookCount(subGenreId);
+                }
+
+            } else {
+                // nothing was written, so the stats and counts must not move either
+                if (!bookDAO.insertIfNew(book)) throw new DuplicateBookException();
+
+                if (subGenreId > 0)
+                    subGenreDAO.incrementBookCount(subGenreId);
+            }
+        };
+    }
 
-            if (subGenreId > 0)
-                subGenreDAO.incrementBookCount(subGenreId);
+    // The book is already stored; the form stays open so it can be changed
+    private static final class DuplicateBookException extends RuntimeException {
+        DuplicateBookException() {
+            super("This book is already in the library (same title, author, genre, type and product). "
+                    + "It was not saved.");
         }
     }
 
@@ -304,6 +341,11 @@ public class FormController {
     public void setRefreshCallback(Runnable cb) { this.refreshCallback = cb; }
 
     public static void open(Window owner, Object entity, Runnable refreshCallback) {
+        open(owner, entity, refreshCallback, null);
+    }
+
+    public static void open(Window owner, Object entity, Runnable refreshCallback,
+                            BiConsumer<Book, Book> bookSavedCallback) {
         try {
             FXMLLoader loader = new FXMLLoader(FormController.class.getResource(
                     "/com/example/ece318_librarymanagementsys/EntityForm.fxml"));
@@ -315,6 +357,7 @@ public class FormController {
             else if (entity instanceof Book b) ctrl.setupAsBook(b);
 
             ctrl.setRefreshCallback(refreshCallback);
+            ctrl.bookSavedCallback = bookSavedCallback;
 
             String entityType = entity instanceof Genre ? "Genre" :
                     entity instanceof SubGenre ? "SubGenre" : "Book";
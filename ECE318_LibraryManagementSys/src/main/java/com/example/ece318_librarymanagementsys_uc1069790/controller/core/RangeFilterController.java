@@ -0,0 +1,102 @@
+package com.example.ece318_librarymanagementsys.controller.core;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.scene.control.Label;
+import org.controlsfx.control.RangeSlider;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+
+// Range slider over one numeric column; reports every thumb move, not just the release
+public class RangeFilterController {
+
+    private final DoubleProperty min, max, low, high;
+    private final Consumer<String> label;
+    private final String name;
+    private final DoubleFunction<String> format;
+    // Long-tailed values (e.g. rating counts) move on a log scale so the low end stays usable
+    private final boolean logScale;
+
+    // Set while bounds are changed from code
+    private boolean adjusting = false;
+
+    public RangeFilterController(RangeSlider slider, Label label, String name,
+                                 DoubleFunction<String> format, boolean logScale, Runnable onChange) {
+        this(slider.minProperty(), slider.maxProperty(), slider.lowValueProperty(), slider.highValueProperty(),
+                label::setText, name, format, logScale, onChange);
+    }
+
+    // The slider's four values, so the range logic also runs without a control
+    RangeFilterController(DoubleProperty min, DoubleProperty max, DoubleProperty low, DoubleProperty high,
+                          Consumer<String> label, String name, DoubleFunction<String> format,
+                          boolean logScale, Runnable onChange) {
+        this.min = min;
+        this.max = max;
+        this.low = low;
+        this.high = high;
+        this.label = label;
+        this.name = name;
+        this.format = format;
+        this.logScale = logScale;
+
+        // a new RangeSlider starts with its thumbs at 1/4 and 3/4; a filter starts wide open
+        low.set(min.get());
+        high.set(max.get());
+
+        low.addListener((obs, oldVal, newVal) -> changed(onChange));
+        high.addListener((obs, oldVal, newVal) -> changed(onChange));
+        updateLabel();
+    }
+
+    // New data range; a filter left wide open stays open, a narrowed one is clamped
+    public void setBounds(double min, double max) {
+        boolean open = !isActive();
+        double lo = toSlider(min), hi = toSlider(Math.max(min, max));
+
+        adjusting = true;
+        // widen first so the thumbs are never pushed around by a crossed min/max
+        this.max.set(Math.max(hi, this.max.get()));
+        this.min.set(lo);
+        this.max.set(hi);
+        if (open) {
+            low.set(lo);
+            high.set(hi);
+        } else {
+            low.set(Math.min(Math.max(low.get(), lo), hi));
+            high.set(Math.max(Math.min(high.get(), hi), low.get()));
+        }
+        adjusting = false;
+        updateLabel();
+    }
+
+    public boolean isActive() {
+        return low.get() > min.get() || high.get() < max.get();
+    }
+
+    // An end left at its bound is open, so rounding on the log scale never drops the extremes
+    public double getLow() {
+        return low.get() <= min.get() ? Double.NEGATIVE_INFINITY : fromSlider(low.get());
+    }
+
+    public double getHigh() {
+        return high.get() >= max.get() ? Double.POSITIVE_INFINITY : fromSlider(high.get());
+    }
+
+    private void changed(Runnable onChange) {
+        updateLabel();
+        if (!adjusting) onChange.run();
+    }
+
+    private void updateLabel() {
+        label.accept(name + ": " + format.apply(fromSlider(low.get()))
+                + " – " + format.apply(fromSlider(high.get())));
+    }
+
+    private double toSlider(double value) {
+        return logScale ? Math.log10(1 + Math.max(0, value)) : value;
+    }
+
+    private double fromSlider(double value) {
+        return logScale ? Math.pow(10, value) - 1 : value;
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.ece318_librarymanagementsys.controller.core;
 
-import com.example.ece318_librarymanagementsys.database.SubGenreDAO;
+import com.example.ece318_librarymanagementsys.database.GenreDictionary;
+import com.example.ece318_librarymanagementsys.search.BookFacetIndex;
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ComboBoxBase;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.scene.control.skin.ComboBoxListViewSkin;
 import javafx.util.Duration;
+import javafx.util.StringConverter;
 import org.controlsfx.control.CheckComboBox;
 
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 public class SearchController<T> {
@@ -21,6 +31,24 @@ public class SearchController<T> {
     private final TextField searchField;
     private final Function<T, String> searchTextExtractor;
 
+    // Optional indexes answering a filter as a set of item ids; each replaces its per-item check
+    private ToIntFunction<T> idExtractor;
+    private Function<String, BitSet> textIndex;
+    private BiFunction<Set<String>, Set<String>, BitSet> facetIndex;
+    // Any further indexed filters (e.g. value ranges); null from the supplier when none is active
+    private Supplier<BitSet> extraIndex;
+    private boolean refilterQueued = false;
+
+    // Optional live counts shown next to each facet name
+    private FacetCounter facetCounter;
+    private final Map<String, Integer> genreCounts = new HashMap<>();
+    private final Map<String, Integer> subGenreCounts = new HashMap<>();
+
+    // (ids passing the non-facet filters or null for all, checked genres, checked sub-genres) -> counts per facet label
+    public interface FacetCounter {
+        BookFacetIndex.Counts count(BitSet scope, Set<String> genres, Set<String> subGenres);
+    }
+
     // Advanced filter components
     private CheckComboBox<String> genreFilterBox;
     private CheckComboBox<String> subGenreFilterBox;
@@ -35,6 +63,7 @@ public class SearchController<T> {
     // Debouncing
     private PauseTransition debounceTimer;
     private static final int DEBOUNCE_DELAY_MS = 250;
+    private static final String STALE_LABELS = "facetLabelsStale";
 
     public SearchController(TableView<T> tableView,
                             FilteredList<T> filteredList,
@@ -49,6 +78,7 @@ public class SearchController<T> {
         attachSearchListener();
     }
 
+    // Dropdowns stay empty until refreshFilters(), called once the genre dictionary is loaded
     public void enableAdvancedFilters(CheckComboBox<String> genreBox,
                                       CheckComboBox<String> subGenreBox,
                                       Function<T, String> genreExtractor,
@@ -58,12 +88,53 @@ public class SearchController<T> {
         this.genreExtractor = genreExtractor;
         this.subGenreExtractor = subGenreExtractor;
 
-        loadGenreCache();
+        genreToSubGenresCache = Collections.emptyMap();
         populateFilterDropdowns();
         attachFilterListeners();
         applyAllFilters();
     }
 
+    // query -> ids of matching items; the returned set is only read
+    public void useTextIndex(ToIntFunction<T> idExtractor, Function<String, BitSet> textIndex) {
+        this.idExtractor = idExtractor;
+        this.textIndex = textIndex;
+        applyAllFilters();
+    }
+
+    // (checked genres, checked sub-genres) -> ids of matching items; the returned set is only read
+    public void useFacetIndex(ToIntFunction<T> idExtractor, BiFunction<Set<String>, Set<String>, BitSet> facetIndex) {
+        this.idExtractor = idExtractor;
+        this.facetIndex = facetIndex;
+        applyAllFilters();
+    }
+
+    // ids of items passing the extra filters, or null; call refilter() when they change
+    public void useExtraIndex(ToIntFunction<T> idExtractor, Supplier<BitSet> extraIndex) {
+        this.idExtractor = idExtractor;
+        this.extraIndex = extraIndex;
+        applyAllFilters();
+    }
+
+    // Re-runs the filters once per pulse, however often it is called (e.g. while dragging a slider)
+    public void refilter() {
+        if (refilterQueued) return;
+        refilterQueued = true;
+        Platform.runLater(() -> {
+            refilterQueued = false;
+            applyAllFilters();
+        });
+    }
+
+    // Shows a count next to every facet name, recomputed after each filter pass
+    public void useFacetCounts(FacetCounter facetCounter) {
+        this.facetCounter = facetCounter;
+        if (genreFilterBox != null && subGenreFilterBox != null) {
+            showCounts(genreFilterBox, genreCounts);
+            showCounts(subGenreFilterBox, subGenreCounts);
+        }
+        applyAllFilters();
+    }
+
     // Updates the filtered list reference after table refresh
     public void updateFilteredList(FilteredList<T> newFilteredList) {
         if (newFilteredList != null) {
@@ -97,7 +168,7 @@ public class SearchController<T> {
     }
 
     private void loadGenreCache() {
-        genreToSubGenresCache = new SubGenreDAO().getAllSubGenreNamesDetailed();
+        genreToSubGenresCache = GenreDictionary.subGenreNamesByGenre();
     }
 
     private void populateFilterDropdowns() {
@@ -178,16 +249,32 @@ public class SearchController<T> {
         final boolean hasGenreFilter = !selectedGenresCache.isEmpty();
         final boolean hasSubGenreFilter = !selectedSubGenresCache.isEmpty();
 
+        // Indexed filters are resolved once per pass and intersected; items then only test one bit
+        final BitSet textHits = hasSearchQuery && textIndex != null
+                ? textIndex.apply(query) : null;
+        final BitSet facetHits = (hasGenreFilter || hasSubGenreFilter) && facetIndex != null
+                ? facetIndex.apply(selectedGenresCache, selectedSubGenresCache) : null;
+        final BitSet extraHits = extraIndex != null ? extraIndex.get() : null;
+        final BitSet scope = intersect(textHits, extraHits);
+        final BitSet allowed = intersect(scope, facetHits);
+
+        final boolean scanText = hasSearchQuery && textIndex == null;
+        final boolean scanFacets = (hasGenreFilter || hasSubGenreFilter) && facetIndex == null;
+
         filteredList.setPredicate(item -> {
             if (item == null) return false;
 
+            if (allowed != null && !allowed.get(idExtractor.applyAsInt(item))) {
+                return false;
+            }
+
             // OPTIMIZATION 1: Check search first (most selective)
-            if (hasSearchQuery && !matchesSearchQuery(item, query)) {
+            if (scanText && !matchesSearchQuery(item, query)) {
                 return false;
             }
 
-            // OPTIMIZATION 2: Early exit if no genre filters
-            if (!hasGenreFilter && !hasSubGenreFilter) {
+            // OPTIMIZATION 2: Early exit if no genre filters left to check
+            if (!scanFacets) {
                 return true;
             }
 
@@ -199,6 +286,56 @@ public class SearchController<T> {
             return matchesGenreFilters(itemGenre, itemSubGenre,
                     hasGenreFilter, hasSubGenreFilter);
         });
+
+        // counts need the text hits as ids, so a scanned text filter leaves them out
+        if (facetCounter != null && !scanText && genreFilterBox != null) {
+            BookFacetIndex.Counts counts = facetCounter.count(scope, selectedGenresCache, selectedSubGenresCache);
+            updateCounts(genreFilterBox, genreCounts, counts.genres);
+            updateCounts(subGenreFilterBox, subGenreCounts, counts.subGenres);
+        }
+    }
+
+    /**
+     * Labels come from the counts map through the dropdown's converter, so a new
+     * count never touches the item list or its checks. Only when a label actually
+     * changed is the popup's list refreshed, the next time it opens.
+     */
+    private void showCounts(CheckComboBox<String> box, Map<String, Integer> counts) {
+        box.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(String name) {
+                Integer n = counts.get(name);
+                return n == null ? name : name + " (" + n + ")";
+            }
+
+            @Override
+            public String fromString(String label) {
+                return label;
+            }
+        });
+
+        box.addEventFilter(ComboBoxBase.ON_SHOWING, e -> {
+            if (!Boolean.TRUE.equals(box.getProperties().remove(STALE_LABELS))) return;
+            if (e.getTarget() instanceof ComboBox<?> combo
+                    && combo.getSkin() instanceof ComboBoxListViewSkin<?> skin
+                    && skin.getPopupContent() instanceof ListView<?> list) {
+                list.refresh();
+            }
+        });
+    }
+
+    private static void updateCounts(CheckComboBox<String> box, Map<String, Integer> shown, Map<String, Integer> fresh) {
+        if (shown.equals(fresh)) return;
+        shown.clear();
+        shown.putAll(fresh);
+        box.getProperties().put(STALE_LABELS, Boolean.TRUE);
+    }
+
+    private static BitSet intersect(BitSet a, BitSet b) {
+        if (a == null || b == null) return a != null ? a : b;
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both;
     }
 
     private String extractSearchQuery() {
@@ -208,8 +345,8 @@ public class SearchController<T> {
     }
 
     /**
-     * IMPROVED: Prefix-based search (books starting with query)
-     * Also supports author name matching
+     * Scan fallback for tables without an index. A word starting with the query
+     * is also a substring of the text, so one contains check covers both cases.
      */
     private boolean matchesSearchQuery(T item, String query) {
         String searchText = searchTextExtractor != null
@@ -220,18 +357,7 @@ public class SearchController<T> {
             return false;
         }
 
-        String lowerSearchText = searchText.toLowerCase(Locale.ROOT);
-
-        // Check if any word in the search text starts with the query
-        String[] words = lowerSearchText.split("\\s+");
-        for (String word : words) {
-            if (word.startsWith(query)) {
-                return true;
-            }
-        }
-
-        // Also check full contains for flexibility
-        return lowerSearchText.contains(query);
+        return searchText.toLowerCase(Locale.ROOT).contains(query);
     }
 
     private String extractGenre(T item) {
@@ -0,0 +1,76 @@
+package com.example.ece318_librarymanagementsys.controller.core;
+
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+// Completion popup under a text field, fed straight from a suggestion index on every keystroke
+public class SuggestionController {
+
+    private static final int MAX_SUGGESTIONS = 8;
+    private static final int MIN_PREFIX = 2;
+
+    private final TextField field;
+    private final BiFunction<String, Integer, List<String>> source;
+    // Returns true when it handled the picked suggestion itself; the field is then cleared
+    private final Predicate<String> pickHandler;
+    private final ContextMenu popup = new ContextMenu();
+
+    // Set while a picked suggestion is written into the field
+    private boolean applying = false;
+
+    public SuggestionController(TextField field,
+                                BiFunction<String, Integer, List<String>> source,
+                                Predicate<String> pickHandler) {
+        this.field = field;
+        this.source = source;
+        this.pickHandler = pickHandler;
+
+        field.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!applying) update(newVal);
+        });
+        field.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) popup.hide();
+        });
+    }
+
+    private void update(String text) {
+        String prefix = text == null ? "" : text.trim();
+        if (prefix.length() < MIN_PREFIX) {
+            popup.hide();
+            return;
+        }
+
+        List<String> suggestions = source.apply(prefix, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            popup.hide();
+            return;
+        }
+
+        List<MenuItem> items = new ArrayList<>(suggestions.size());
+        for (String s : suggestions) {
+            MenuItem item = new MenuItem(s);
+            item.setOnAction(e -> pick(s));
+            items.add(item);
+        }
+        popup.getItems().setAll(items);
+
+        if (!popup.isShowing()) popup.show(field, Side.BOTTOM, 0, 0);
+    }
+
+    private void pick(String suggestion) {
+        popup.hide();
+        String text = pickHandler != null && pickHandler.test(suggestion) ? "" : suggestion;
+
+        applying = true;
+        field.setText(text);
+        field.positionCaret(text.length());
+        applying = false;
+    }
+}
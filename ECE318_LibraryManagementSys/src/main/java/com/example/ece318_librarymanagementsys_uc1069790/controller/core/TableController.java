@@ -2,8 +2,15 @@ package com.example.ece318_librarymanagementsys.controller.core;
 
 import com.example.ece318_librarymanagementsys.database.*;
 import com.example.ece318_librarymanagementsys.model.*;
+import com.example.ece318_librarymanagementsys.search.BookColumns;
+import com.example.ece318_librarymanagementsys.search.BookOrder;
 import javafx.application.HostServices;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.*;
 import javafx.collections.transformation.*;
 import javafx.scene.control.*;
@@ -12,6 +19,7 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 //Generic reusable TableController for any model type.
 public class TableController<T> {
@@ -21,6 +29,32 @@ public class TableController<T> {
     private SortedList<T> sorted;
     private HostServices hostServices;
 
+    // Row order while no column sort is chosen (e.g. search relevance); null keeps list order
+    private final ObjectProperty<Comparator<T>> defaultOrder = new SimpleObjectProperty<>();
+
+    // Runs whenever the filtered rows change; survives setItems
+    private Runnable rowsChangedHandler;
+
+    // Optional precomputed orders; when set the table shows orderedRows instead of a SortedList
+    private RowOrder<T> rowOrder;
+    private final ObservableList<T> orderedRows = FXCollections.observableArrayList();
+    private boolean rowsQueued = false;
+
+    // Selection handlers, muted while orderedRows is replaced so a kept selection causes no events
+    private final List<Consumer<T>> selectHandlers = new ArrayList<>();
+    private boolean updatingRows = false;
+
+    /** Rows addressable by int id, with a ready-made ascending order for some columns. */
+    public interface RowOrder<T> {
+        int idOf(T row);
+
+        T row(int id);
+
+        // Visits the ids of all rows in this column's order; false when the column has no
+        // ready-made order and is sorted with its comparator instead
+        boolean forEachId(TableColumn<T, ?> column, boolean descending, IntConsumer action);
+    }
+
     public TableController(TableView<T> table) {
         this.table = table;
     }
@@ -44,15 +78,115 @@ public class TableController<T> {
     // observable list to the table with sorting and filtering
     public void setItems(ObservableList<T> list) {
         filtered = new FilteredList<>(list, t -> true);
-        sorted = new SortedList<>(filtered);
-        sorted.comparatorProperty().bind(table.comparatorProperty());
-        table.setItems(sorted);
+
+        if (rowOrder != null) {
+            filtered.addListener((InvalidationListener) obs -> queueOrderedRows());
+            table.setItems(orderedRows);
+            updateOrderedRows();
+        } else {
+            sorted = new SortedList<>(filtered);
+            sorted.comparatorProperty().bind(Bindings.createObjectBinding(
+                    () -> table.getComparator() != null ? table.getComparator() : defaultOrder.get(),
+                    table.comparatorProperty(), defaultOrder));
+            table.setItems(sorted);
+        }
+
+        if (rowsChangedHandler != null) {
+            filtered.addListener((InvalidationListener) obs -> rowsChangedHandler.run());
+            rowsChangedHandler.run();
+        }
     }
 
     public FilteredList<T> getFiltered() {
         return filtered;
     }
 
+    public void onRowsChanged(Runnable handler) {
+        this.rowsChangedHandler = handler;
+        if (filtered != null) {
+            filtered.addListener((InvalidationListener) obs -> handler.run());
+            handler.run();
+        }
+    }
+
+    public void setDefaultOrder(Comparator<T> order) {
+        defaultOrder.set(order);
+    }
+
+    // True while rows without a column sort follow the default order (e.g. search relevance)
+    public boolean hasDefaultOrder() {
+        return defaultOrder.get() != null;
+    }
+
+    /**
+     * Orders rows from precomputed id permutations: a single-column sort walks the
+     * column's permutation and keeps the ids that pass the filter, so no comparator
+     * runs. Other sorts fall back to the table's comparator.
+     */
+    public void useRowOrder(RowOrder<T> rowOrder) {
+        this.rowOrder = rowOrder;
+        table.setSortPolicy(t -> {
+            updateOrderedRows();
+            return true;
+        });
+        defaultOrder.addListener((obs, oldVal, newVal) -> updateOrderedRows());
+    }
+
+    // A patch of many rows fires many filter changes; the order is rebuilt once after them
+    private void queueOrderedRows() {
+        if (rowsQueued) return;
+        rowsQueued = true;
+        Platform.runLater(() -> {
+            rowsQueued = false;
+            updateOrderedRows();
+        });
+    }
+
+    private void updateOrderedRows() {
+        if (filtered == null || rowOrder == null) return;
+
+        BitSet shown = new BitSet();
+        for (T row : filtered) shown.set(rowOrder.idOf(row));
+
+        List<TableColumn<T, ?>> sortOrder = table.getSortOrder();
+        List<T> rows = new ArrayList<>(filtered.size());
+        boolean ordered = sortOrder.size() == 1 && rowOrder.forEachId(sortOrder.get(0),
+                sortOrder.get(0).getSortType() == TableColumn.SortType.DESCENDING,
+                id -> {
+                    if (shown.get(id)) rows.add(rowOrder.row(id));
+                });
+
+        if (!ordered) {
+            rows.addAll(filtered);
+            Comparator<T> order = table.getComparator() != null && !sortOrder.isEmpty()
+                    ? table.getComparator() : defaultOrder.get();
+            if (order != null) rows.sort(order);
+        }
+
+        // setAll clears the selection; the selected row is put back by id if still shown
+        T selected = table.getSelectionModel().getSelectedItem();
+        int selectedId = selected == null ? -1 : rowOrder.idOf(selected);
+        boolean keep = selected != null && shown.get(selectedId);
+
+        updatingRows = true;
+        try {
+            orderedRows.setAll(rows);
+            if (keep) {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (rowOrder.idOf(rows.get(i)) == selectedId) {
+                        table.getSelectionModel().select(i);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            updatingRows = false;
+        }
+
+        T now = table.getSelectionModel().getSelectedItem();
+        if (now != selected) selectHandlers.forEach(h -> h.accept(now));
+    }
+
     // allows reusing the controller
     public void refreshItems(ObservableList<T> list) {
         setItems(list);
@@ -65,8 +199,11 @@ public class TableController<T> {
 
     // selection change handler
     public void onSelect(Consumer<T> handler) {
+        selectHandlers.add(handler);
         table.getSelectionModel().selectedItemProperty()
-                .addListener((obs, oldVal, newVal) -> handler.accept(newVal));
+                .addListener((obs, oldVal, newVal) -> {
+                    if (!updatingRows) handler.accept(newVal);
+                });
     }
 
     public <R> void addComputedColumn(TableColumn<T, R> column, Function<T, R> valueProvider) {
@@ -102,10 +239,11 @@ public class TableController<T> {
     }
 
     // Helpers
-    public static TableController<Book> forBooks(TableView<Book> table, HostServices hs) {
+    public static TableController<Book> forBooks(TableView<Book> table, HostServices hs,
+                                                 BookColumns columns, BookOrder order) {
         var ctrl = new TableController<Book>(table);
 
-        ctrl.setupTable("title", "author", null, null, "price", "rating");
+        ctrl.setupTable("title", "author", null, null, null, null);
 
         // Column 2 = Genre name
         ctrl.addComputedColumn(
@@ -119,6 +257,42 @@ public class TableController<T> {
                 Book::getSubGenre
         );
 
+        // Columns 4-5 = price and rating, read from the column store instead of by reflection
+        ctrl.addComputedColumn(
+                (TableColumn<Book, Double>) table.getColumns().get(4),
+                b -> columns.value(BookColumns.Column.PRICE, b)
+        );
+        ctrl.addComputedColumn(
+                (TableColumn<Book, Double>) table.getColumns().get(5),
+                b -> columns.value(BookColumns.Column.RATING, b)
+        );
+
+        // Title, author, price and rating sort from the maintained permutations
+        Map<TableColumn<Book, ?>, BookOrder.Key> keys = Map.of(
+                table.getColumns().get(0), BookOrder.Key.TITLE,
+                table.getColumns().get(1), BookOrder.Key.AUTHOR,
+                table.getColumns().get(4), BookOrder.Key.PRICE,
+                table.getColumns().get(5), BookOrder.Key.RATING);
+
+        ctrl.useRowOrder(new RowOrder<>() {
+            @Override
+            public int idOf(Book row) {
+                return row.getId();
+            }
+
+            @Override
+            public Book row(int id) {
+                return order.book(id);
+            }
+
+            @Override
+            public boolean forEachId(TableColumn<Book, ?> column, boolean descending, IntConsumer action) {
+                BookOrder.Key key = keys.get(column);
+                if (key == null) return false;
+                order.forEachId(key, descending, action);
+                return true;
+            }
+        });
 
         ctrl.setHostServices(hs);
         return ctrl;
@@ -139,39 +313,27 @@ public class TableController<T> {
         return ctrl;
     }
 
-    public static TableController<SubGenre> forSubGenres(TableView<SubGenre> table, HostServices hs,
-                                                         Map<String, SubGenreDAO.SubGenreStat> stats) {
+    public static TableController<SubGenreRow> forSubGenres(TableView<SubGenreRow> table, HostServices hs) {
 
-        var ctrl = new TableController<SubGenre>(table);
+        var ctrl = new TableController<SubGenreRow>(table);
         ctrl.setupTable("name", null, null, null, null, "url");
 
-        GenreDAO genreDAO = new GenreDAO();
-        // column index 1
-        ctrl.addComputedColumn(
-                (TableColumn<SubGenre, String>) table.getColumns().get(1),
-                sg -> {
-                    // resolve by genre_id first
-                    Genre g = genreDAO.findById(sg.getGenreId());
-                        return g.getName();
-                }
-        );
+        // Pre-joined row fields only, no lookups while rendering or sorting
+        ctrl.addComputedColumn((TableColumn<SubGenreRow, String>) table.getColumns().get(1),
+                SubGenreRow::getGenreName);
 
-        // Stats
-        ctrl.addComputedColumn((TableColumn<SubGenre, Integer>) table.getColumns().get(2),
-                s -> Optional.ofNullable(stats.get(s.getName())).map(v -> v.totalBooks).orElse(0));
+        ctrl.addComputedColumn((TableColumn<SubGenreRow, Integer>) table.getColumns().get(2),
+                SubGenreRow::getTotalBooks);
 
-        ctrl.addComputedColumn((TableColumn<SubGenre, Double>) table.getColumns().get(3),
-                s -> Optional.ofNullable(stats.get(s.getName())).map(v -> v.avgRating).orElse(0.0));
+        ctrl.addComputedColumn((TableColumn<SubGenreRow, Double>) table.getColumns().get(3),
+                SubGenreRow::getAvgRating);
 
-        ctrl.addComputedColumn((TableColumn<SubGenre, Double>) table.getColumns().get(4),
-                s -> Optional.ofNullable(stats.get(s.getName())).map(v -> v.avgPrice).orElse(0.0));
+        ctrl.addComputedColumn((TableColumn<SubGenreRow, Double>) table.getColumns().get(4),
+                SubGenreRow::getAvgPrice);
 
-        ctrl.setupHyperlinkColumn((TableColumn<SubGenre, String>) table.getColumns().get(5), "View on Amazon");
+        ctrl.setupHyperlinkColumn((TableColumn<SubGenreRow, String>) table.getColumns().get(5), "View on Amazon");
         ctrl.setHostServices(hs);
 
         return ctrl;
     }
-
-
-
 }
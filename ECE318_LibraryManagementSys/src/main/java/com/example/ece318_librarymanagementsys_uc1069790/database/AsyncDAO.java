@@ -0,0 +1,91 @@
+package com.example.ece318_librarymanagementsys.database;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs database work off the JavaFX application thread.
+ *
+ * Work runs on a dedicated database executor (virtual threads when the runtime has
+ * them, otherwise a small daemon pool sized like the connection pool). Every returned
+ * future completes on the JavaFX application thread, so callers can touch the UI in
+ * their callbacks. Cancelling a future that has not started skips the work; cancelling
+ * one that is running drops its result.
+ */
+public final class AsyncDAO {
+
+    private static final int POOL_THREADS = 10;
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    // Number of requests in flight, only touched on the FX thread
+    private static int pending;
+    private static final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+
+    private AsyncDAO() {
+    }
+
+    // Database work (single DAO calls, several in a row, bulk loads, CSV reloads)
+    public static CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <R> CompletableFuture<R> supply(Supplier<R> work) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        onFxThread(() -> setPending(pending + 1));
+
+        CompletableFuture.supplyAsync(() -> result.isCancelled() ? null : work.get(), EXECUTOR)
+                .whenComplete((value, error) -> Platform.runLater(() -> {
+                    setPending(pending - 1);
+                    if (error != null) result.completeExceptionally(unwrap(error));
+                    else result.complete(value);
+                }));
+
+        return result;
+    }
+
+    // True while any request is in flight; bind loading indicators to it
+    public static ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    public static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    private static void setPending(int value) {
+        pending = Math.max(value, 0);
+        busy.set(pending > 0);
+    }
+
+    private static void onFxThread(Runnable r) {
+        if (Platform.isFxApplicationThread()) r.run();
+        else Platform.runLater(r);
+    }
+
+    // Virtual threads exist from Java 21 on; looked up reflectively so Java 17 still runs
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(POOL_THREADS, r -> {
+                Thread t = new Thread(r, "db-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -3,11 +3,18 @@ package com.example.ece318_librarymanagementsys.database;
 import com.example.ece318_librarymanagementsys.model.BaseEntity;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class BaseDAO<T extends BaseEntity> implements DAO<T> {
 
+    protected static final int PAGE_SIZE = 5000;
+    // Connector/J streams a result row by row at this fetch size, without server-side
+    // prepares; nothing else may run on that connection until the result is read or closed
+    protected static final int STREAM_ROWS = Integer.MIN_VALUE;
+
     protected abstract String getTableName();
     protected abstract T mapRow(ResultSet rs) throws SQLException;
 
@@ -29,24 +36,99 @@ public abstract class BaseDAO<T extends BaseEntity> implements DAO<T> {
         return null;
     }
 
+    // Built on keyset pages so the driver never buffers the whole table at once;
+    // a failed page throws rather than returning part of the table
     @Override
     public List<T> getAll() {
-        String sql = "SELECT * FROM " + getTableName() + " ORDER BY id";
         List<T> list = new ArrayList<>();
+        forEachPage(PAGE_SIZE, list::addAll);
+        return list;
+    }
+
+    // Keyset pagination: up to `limit` rows with id > afterId, ordered by id; throws IllegalStateException on failure
+    public List<T> findPage(int afterId, int limit) {
+        String sql = "SELECT * FROM " + getTableName() + " WHERE id > ? ORDER BY id LIMIT ?";
+        List<T> page = new ArrayList<>(Math.min(limit, PAGE_SIZE));
 
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement s = c.prepareStatement(sql);
-             ResultSet rs = s.executeQuery()) {
+             PreparedStatement s = c.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                list.add(mapRow(rs));
+            s.setInt(1, afterId);
+            s.setInt(2, limit);
+
+            try (ResultSet rs = s.executeQuery()) {
+                while (rs.next()) page.add(mapRow(rs));
             }
 
         } catch (SQLException e) {
             e.printStackTrace();
+            throw new IllegalStateException("Failed reading " + getTableName() + ": " + e.getMessage(), e);
         }
+        return page;
+    }
 
-        return list;
+    // Walks the whole table page by page, each page on a short-lived connection
+    public void forEachPage(int pageSize, Consumer<List<T>> pageConsumer) {
+        int afterId = Integer.MIN_VALUE;
+        while (true) {
+            List<T> page = findPage(afterId, pageSize);
+            if (page.isEmpty()) return;
+
+            pageConsumer.accept(page);
+            if (page.size() < pageSize) return;
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Streams every row in id order, one row at a time from the driver. The
+     * connection stays open until the stream is closed, so always use it in
+     * try-with-resources. Failing to open or read it throws IllegalStateException.
+     */
+    public Stream<T> stream() {
+        String sql = "SELECT * FROM " + getTableName() + " ORDER BY id";
+
+        Connection c;
+        try {
+            c = DatabaseConnection.getConnection();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new IllegalStateException("Failed reading " + getTableName() + ": " + e.getMessage(), e);
+        }
+
+        try {
+            PreparedStatement s = c.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            s.setFetchSize(STREAM_ROWS);
+            ResultSet rs = s.executeQuery();
+
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) return false;
+                        action.accept(mapRow(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Failed reading " + getTableName(), e);
+                    }
+                }
+            };
+
+            return StreamSupport.stream(rows, false).onClose(() -> closeAll(rs, s, c));
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            closeAll(c);
+            throw new IllegalStateException("Failed reading " + getTableName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Visits every row through the stream and releases the connection afterwards
+    public void forEach(Consumer<? super T> visitor) {
+        try (Stream<T> rows = stream()) {
+            rows.forEach(visitor);
+        }
     }
 
     @Override
@@ -60,6 +142,17 @@ public abstract class BaseDAO<T extends BaseEntity> implements DAO<T> {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            throw new IllegalStateException("Failed to delete from " + getTableName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeAll(AutoCloseable... resources) {
+        for (AutoCloseable r : resources) {
+            try {
+                r.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         }
     }
 }
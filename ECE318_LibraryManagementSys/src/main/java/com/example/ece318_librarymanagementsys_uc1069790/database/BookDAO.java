@@ -3,9 +3,10 @@ package com.example.ece318_librarymanagementsys.database;
 import com.example.ece318_librarymanagementsys.model.Book;
 
 import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
 
 public class BookDAO extends BaseDAO<Book> implements DAO<Book> {
-    private int skippedCount = 0; // counter for skipped entries
 
     @Override
     protected String getTableName() {
@@ -32,78 +33,425 @@ public class BookDAO extends BaseDAO<Book> implements DAO<Book> {
 
     // deleteById(), findById(), getAll() from BaseDAO -> inheritance
 
-    private boolean bookExists(Book book) {
-        String sql = """
-        SELECT COUNT(*) FROM books 
-        WHERE LOWER(title) = LOWER(?) 
-        AND LOWER(author) = LOWER(?)
-        AND LOWER(main_genre) = LOWER(?)
-        AND LOWER(sub_genre) = LOWER(?)
-        AND LOWER(type) = LOWER(?)
-        AND LOWER(url) = LOWER(?)
-    """;
+    // adaptive batch sizing for bulk imports
+    private static final int MIN_BATCH_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final long TARGET_BATCH_NANOS = 250_000_000L; // 250ms per round trip
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private static final String INSERT_PREFIX = """
+        INSERT INTO books
+        (title, author, main_genre, sub_genre, type, price, rating, num_rated, url, genre_id, subgenre_id)
+        VALUES\s""";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-            stmt.setString(1, book.getTitle());
-            stmt.setString(2, book.getAuthor());
-            stmt.setString(3, book.getMainGenre());
-            stmt.setString(4, book.getSubGenre());
-            stmt.setString(5, book.getType());
-            stmt.setString(6, book.getUrl());
+    // Sync writes: new rows get generated ids, known ids are overwritten in place
+    private static final String SYNC_INSERT_PREFIX = """
+        INSERT INTO books
+        (title, author, main_genre, sub_genre, type, price, rating, num_rated, url, genre_id, subgenre_id,
+         source_key, row_hash)
+        VALUES\s""";
+    private static final String SYNC_INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SYNC_UPDATE_PREFIX = """
+        INSERT INTO books
+        (title, author, main_genre, sub_genre, type, price, rating, num_rated, url, genre_id, subgenre_id,
+         source_key, row_hash, id)
+        VALUES\s""";
+    private static final String SYNC_UPDATE_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Row alias form; VALUES(col) in the update list is deprecated since MySQL 8.0.20
+    private static final String SYNC_UPDATE_SUFFIX = """
+        \sAS new ON DUPLICATE KEY UPDATE
+            title=new.title, author=new.author, main_genre=new.main_genre,
+            sub_genre=new.sub_genre, type=new.type, price=new.price, rating=new.rating,
+            num_rated=new.num_rated, url=new.url, genre_id=new.genre_id,
+            subgenre_id=new.subgenre_id, source_key=new.source_key, row_hash=new.row_hash""";
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
+    // Null until an insert first needs it; guarded by BookDAO.class
+    private static LongHashSet storedHashes;
+
+    /** A book read from an export, with its sync key and row fingerprint (see {@link ContentHash}). */
+    public static final class SyncedBook {
+        public final Book book;
+        public final String sourceKey;
+        public final long rowHash;
+
+        public SyncedBook(Book book, String sourceKey, long rowHash) {
+            this.book = book;
+            this.sourceKey = sourceKey;
+            this.rowHash = rowHash;
+        }
+    }
+
+    @FunctionalInterface
+    public interface StoredRowVisitor {
+        // sourceKey is null for rows never synced; those come with their ContentHash as identity instead
+        void visit(int id, String sourceKey, long rowHash, long identity);
+    }
+
+    /** Counts of one import and the span of ids it generated; the books themselves are not kept. */
+    public static final class ImportResult {
+        public final int inserted;
+        public final int skipped;
+        // Smallest and largest generated id, 0 when nothing was inserted
+        public final int firstId;
+        public final int lastId;
+
+        public ImportResult(int inserted, int skipped, int firstId, int lastId) {
+            this.inserted = inserted;
+            this.skipped = skipped;
+            this.firstId = firstId;
+            this.lastId = lastId;
+        }
+
+        static ImportResult of(List<Book> added, int skipped) {
+            int first = 0, last = 0;
+            for (Book b : added) {
+                if (first == 0 || b.getId() < first) first = b.getId();
+                last = Math.max(last, b.getId());
             }
+            return new ImportResult(added.size(), skipped, first, last);
+        }
+
+        // This and r together, e.g. two chunks or two writers of one import
+        public ImportResult plus(ImportResult r) {
+            if (r.inserted == 0) return new ImportResult(inserted, skipped + r.skipped, firstId, lastId);
+            return new ImportResult(inserted + r.inserted, skipped + r.skipped,
+                    inserted == 0 ? r.firstId : Math.min(firstId, r.firstId), Math.max(lastId, r.lastId));
+        }
+    }
+
+    @Override
+    public void insert(Book book) {
+        insertIfNew(book);
+    }
+
+    /**
+     * Inserts one book unless it duplicates a stored one (see {@link ContentHash}).
+     * Returns false for a duplicate, whose id stays 0; a database error is rethrown.
+     */
+    public boolean insertIfNew(Book book) {
+        try {
+            return insertAll(List.of(book)).inserted == 1;
         } catch (SQLException e) {
             e.printStackTrace();
+            throw new IllegalStateException("Failed to insert book: " + e.getMessage(), e);
         }
-        return false;
     }
 
-    public void insert(Book book) {
-        if (bookExists(book)) {
-            skippedCount++; // increment counter
-            return;
+    /**
+     * Bulk import in a single transaction. Duplicates (same content hash, see
+     * {@link ContentHash}) of stored rows or of earlier rows in the import are
+     * dropped in memory, and the chunk size grows or shrinks with the measured latency.
+     */
+    public ImportResult insertAll(List<Book> books) throws SQLException {
+        return insertAll(books, r -> {});
+    }
+
+    /**
+     * Same, reporting each stored chunk to {@code afterChunk}. An unchecked exception
+     * thrown by it (e.g. a CancellationException) rolls the whole import back.
+     */
+    public ImportResult insertAll(List<Book> books, Consumer<ImportResult> afterChunk) throws SQLException {
+        if (books == null || books.isEmpty()) return new ImportResult(0, 0, 0, 0);
+
+        ImportResult total = new ImportResult(0, 0, 0, 0);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try {
+                int batchSize = MIN_BATCH_SIZE;
+                int pos = 0;
+
+                while (pos < books.size()) {
+                    int end = Math.min(pos + batchSize, books.size());
+                    List<Book> chunk = books.subList(pos, end);
+
+                    long start = System.nanoTime();
+                    ImportResult r = insertChunk(conn, chunk);
+                    long elapsed = System.nanoTime() - start;
+
+                    total = total.plus(r);
+                    batchSize = nextBatchSize(batchSize, elapsed);
+                    pos = end;
+                    afterChunk.accept(r);
+                }
+
+                SubGenreDAO.recountBooks(conn);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                forgetContentHashes();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
         }
 
-        String sql = """
-        INSERT INTO books 
-        (title, author, main_genre, sub_genre, type, price, rating, num_rated, url, genre_id, subgenre_id)
-        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-    """;
+        return total;
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Inserts one chunk on the caller's connection; transaction handling is left to
+     * the caller, who calls {@link #forgetContentHashes()} after a rollback. Rows
+     * whose content hash is already known are skipped. Safe to call from several
+     * writer threads at once.
+     */
+    public ImportResult insertChunk(Connection conn, List<Book> chunk) throws SQLException {
+        if (chunk.isEmpty()) return new ImportResult(0, 0, 0, 0);
 
-            stmt.setString(1, book.getTitle());
-            stmt.setString(2, book.getAuthor());
-            stmt.setString(3, book.getMainGenre());
-            stmt.setString(4, book.getSubGenre());
-            stmt.setString(5, book.getType());
-            stmt.setDouble(6, book.getPrice());
-            stmt.setDouble(7, book.getRating());
-            stmt.setInt(8, book.getNumRated());
-            stmt.setString(9, book.getUrl());
-            stmt.setInt(10, book.getGenreId());
-            stmt.setInt(11, book.getSubGenreId());
+        List<Book> fresh = filterDuplicates(conn, chunk);
+        insertRows(conn, fresh);
+        return ImportResult.of(fresh, chunk.size() - fresh.size());
+    }
+
+    // Drops rows already stored or repeated earlier in the import: one set probe per row
+    private List<Book> filterDuplicates(Connection conn, List<Book> chunk) throws SQLException {
+        long[] hashes = new long[chunk.size()];
+        for (int i = 0; i < hashes.length; i++) hashes[i] = ContentHash.of(chunk.get(i));
+
+        List<Book> fresh = new ArrayList<>(chunk.size());
+        synchronized (BookDAO.class) {
+            LongHashSet known = contentHashes(conn);
+            for (int i = 0; i < hashes.length; i++) {
+                if (known.add(hashes[i])) fresh.add(chunk.get(i));
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Content hashes of every stored book, read in one streamed pass the first time
+     * an insert needs them and extended by each insert after that. Edits and deletes
+     * cannot take a single hash out, so they drop the set and the next insert
+     * reads it again. Shared by all BookDAO instances.
+     */
+    private static LongHashSet contentHashes(Connection conn) throws SQLException {
+        if (storedHashes != null) return storedHashes;
+
+        String sql = "SELECT title, author, main_genre, sub_genre, type, url FROM books";
+        LongHashSet hashes = new LongHashSet();
+        try (PreparedStatement stmt = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(STREAM_ROWS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    hashes.add(ContentHash.of(
+                            rs.getString("title"), rs.getString("author"),
+                            rs.getString("main_genre"), rs.getString("sub_genre"),
+                            rs.getString("type"), rs.getString("url")));
+                }
+            }
+        }
+        storedHashes = hashes;
+        return hashes;
+    }
+
+    // After a rollback or any write that changes stored content
+    public static synchronized void forgetContentHashes() {
+        storedHashes = null;
+    }
+
+    // One multi-row INSERT per chunk, generated ids are written back in order
+    private void insertRows(Connection conn, List<Book> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW));
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int i = 1;
+            for (Book book : rows) i = bind(stmt, i, book);
 
             stmt.executeUpdate();
+            readGeneratedIds(stmt, rows);
+        }
+    }
+
+    // Sets the eleven book columns from parameter i on; returns the next parameter index
+    private static int bind(PreparedStatement stmt, int i, Book book) throws SQLException {
+        stmt.setString(i++, book.getTitle());
+        stmt.setString(i++, book.getAuthor());
+        stmt.setString(i++, book.getMainGenre());
+        stmt.setString(i++, book.getSubGenre());
+        stmt.setString(i++, book.getType());
+        stmt.setDouble(i++, book.getPrice());
+        stmt.setDouble(i++, book.getRating());
+        stmt.setInt(i++, book.getNumRated());
+        stmt.setString(i++, book.getUrl());
+        stmt.setInt(i++, book.getGenreId());
+        stmt.setInt(i++, book.getSubGenreId());
+        return i;
+    }
+
+    private static void readGeneratedIds(PreparedStatement stmt, List<Book> rows) throws SQLException {
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            for (Book book : rows) {
+                if (!rs.next()) break;
+                book.setId(rs.getInt(1));
+            }
+        }
+    }
+
+    // ─── Incremental sync ─────────────────────────
+
+    /**
+     * Streams the sync state of every stored row: key and fingerprint of the rows a
+     * sync wrote, and the content identity of the rows that came from plain imports
+     * or the form, so a first sync can adopt them instead of inserting copies.
+     */
+    public void forEachStoredRow(Connection conn, StoredRowVisitor visitor) throws SQLException {
+        String keyed = "SELECT id, source_key, row_hash FROM books WHERE source_key IS NOT NULL";
+        String unkeyed = "SELECT id, title, author, main_genre, sub_genre, type, url FROM books "
+                + "WHERE source_key IS NULL";
 
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    book.setId(rs.getInt(1));
+        try (PreparedStatement stmt = conn.prepareStatement(keyed,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(STREAM_ROWS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(rs.getInt(1), rs.getString(2), rs.getLong(3), 0);
                 }
             }
+        }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+        try (PreparedStatement stmt = conn.prepareStatement(unkeyed,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(STREAM_ROWS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(rs.getInt("id"), null, 0, ContentHash.of(
+                            rs.getString("title"), rs.getString("author"),
+                            rs.getString("main_genre"), rs.getString("sub_genre"),
+                            rs.getString("type"), rs.getString("url")));
+                }
+            }
         }
     }
 
+    // New rows of a sync, one multi-row INSERT; generated ids are written back
+    public void insertSynced(Connection conn, List<SyncedBook> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+
+        String sql = SYNC_INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), SYNC_INSERT_ROW));
+        List<Book> books = new ArrayList<>(rows.size());
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int i = 1;
+            for (SyncedBook row : rows) {
+                i = bind(stmt, i, row.book);
+                stmt.setString(i++, row.sourceKey);
+                stmt.setLong(i++, row.rowHash);
+                books.add(row.book);
+            }
+
+            stmt.executeUpdate();
+            readGeneratedIds(stmt, books);
+        }
+    }
+
+    // Changed rows of a sync, by book id: one multi-row upsert instead of one UPDATE each
+    public void updateSynced(Connection conn, List<SyncedBook> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+
+        String sql = SYNC_UPDATE_PREFIX + String.join(", ", Collections.nCopies(rows.size(), SYNC_UPDATE_ROW))
+                + SYNC_UPDATE_SUFFIX;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (SyncedBook row : rows) {
+                i = bind(stmt, i, row.book);
+                stmt.setString(i++, row.sourceKey);
+                stmt.setLong(i++, row.rowHash);
+                stmt.setInt(i++, row.book.getId());
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    // Takes back rows that were committed by id range (inclusive), e.g. part of a failed import
+    public void deleteIdRanges(List<int[]> ranges) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM books WHERE id BETWEEN ? AND ?")) {
+            for (int[] r : ranges) {
+                stmt.setInt(1, r[0]);
+                stmt.setInt(2, r[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        forgetContentHashes();
+    }
+
+    // Sub-genre book counts from the books table, for imports that commit on several connections
+    public void recountSubGenreBooks() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            SubGenreDAO.recountBooks(conn);
+        }
+    }
+
+    public void deleteIds(Connection conn, List<Integer> ids) throws SQLException {
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            String sql = "DELETE FROM books WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) stmt.setInt(i + 1, chunk.get(i));
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static int nextBatchSize(int current, long elapsedNanos) {
+        if (elapsedNanos < TARGET_BATCH_NANOS / 2) return Math.min(current * 2, MAX_BATCH_SIZE);
+        if (elapsedNanos > TARGET_BATCH_NANOS) return Math.max(current / 2, MIN_BATCH_SIZE);
+        return current;
+    }
+
+    /**
+     * Folds near-duplicate copies into the book kept in their place, in one
+     * transaction: the kept row takes the merged rating and rating count, the
+     * copies are deleted and their sub-genres' book counts lowered. A failure
+     * leaves all of it unchanged.
+     */
+    public void mergeDuplicates(Book merged, List<Book> duplicates) throws SQLException {
+        List<Integer> ids = new ArrayList<>(duplicates.size());
+        Map<Integer, Integer> perSubGenre = new HashMap<>();
+        for (Book b : duplicates) {
+            ids.add(b.getId());
+            perSubGenre.merge(b.getSubGenreId(), 1, Integer::sum);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE books SET rating = ?, num_rated = ? WHERE id = ?")) {
+                stmt.setDouble(1, merged.getRating());
+                stmt.setInt(2, merged.getNumRated());
+                stmt.setInt(3, merged.getId());
+                stmt.executeUpdate();
+
+                deleteIds(conn, ids);
+                SubGenreDAO.decrementBookCounts(conn, perSubGenre);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        forgetContentHashes();
+    }
+
+    @Override
+    public void deleteById(int id) {
+        super.deleteById(id);
+        forgetContentHashes();
+    }
+
     @Override
     public void update(Book book) {
         String sql = """
@@ -131,9 +479,11 @@ public class BookDAO extends BaseDAO<Book> implements DAO<Book> {
             stmt.setInt(12, book.getId());
 
             stmt.executeUpdate();
+            forgetContentHashes();
 
         } catch (SQLException e) {
             e.printStackTrace();
+            throw new IllegalStateException("Failed to update book: " + e.getMessage(), e);
         }
     }
 
@@ -147,15 +497,11 @@ public class BookDAO extends BaseDAO<Book> implements DAO<Book> {
             // Reset auto-increment counter to 1
             stmt.executeUpdate("ALTER TABLE books AUTO_INCREMENT = 1");
 
+            forgetContentHashes();
             System.out.println("Cleared all books and reset ID counter to 1");
 
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
-
-    public void printSkippedCount() {
-        System.out.println("Total skipped entries: " + skippedCount);
-        skippedCount = 0;
-    }
 }
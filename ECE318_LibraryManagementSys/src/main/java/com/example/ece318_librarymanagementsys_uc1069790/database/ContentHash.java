@@ -0,0 +1,130 @@
+package com.example.ece318_librarymanagementsys.database;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 64-bit fingerprint of what makes two book rows the same listing.
+ *
+ * Title and author are case-folded with whitespace runs collapsed; genre,
+ * sub-genre and type are case-folded; the URL is reduced to the product's ASIN,
+ * so the same book linked from different bestseller pages still matches. Fields
+ * are separated before hashing, so ("ab", "c") and ("a", "bc") differ. With 64
+ * bits, a false match among a million books has odds of about 1 in 30 million.
+ */
+public final class ContentHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Amazon product paths: /dp/ASIN, /gp/product/ASIN
+    private static final Pattern ASIN = Pattern.compile("/(?:dp|gp/product)/([A-Za-z0-9]{10})(?:[/?#]|$)");
+
+    private ContentHash() {}
+
+    public static long of(Book b) {
+        return of(b.getTitle(), b.getAuthor(), b.getMainGenre(), b.getSubGenre(), b.getType(), b.getUrl());
+    }
+
+    public static long of(String title, String author, String mainGenre,
+                          String subGenre, String type, String url) {
+        long h = FNV_OFFSET;
+        h = mix(h, normalize(title));
+        h = mix(h, normalize(author));
+        h = mix(h, normalize(mainGenre));
+        h = mix(h, normalize(subGenre));
+        h = mix(h, normalize(type));
+        h = mix(h, productKey(url));
+        return finish(h);
+    }
+
+    /**
+     * Fingerprint of every field of a row as imported, prices and counts included,
+     * so an incremental sync can tell a changed row from an unchanged one. The URL
+     * counts by its ASIN only: its tracking path changes with every bestseller list.
+     */
+    public static long ofRow(Book b) {
+        long h = FNV_OFFSET;
+        h = mix(h, b.getTitle() == null ? "" : b.getTitle());
+        h = mix(h, b.getAuthor() == null ? "" : b.getAuthor());
+        h = mix(h, b.getMainGenre() == null ? "" : b.getMainGenre());
+        h = mix(h, b.getSubGenre() == null ? "" : b.getSubGenre());
+        h = mix(h, b.getType() == null ? "" : b.getType());
+        h = mix(h, productKey(b.getUrl()));
+        h = mix(h, Double.doubleToLongBits(b.getPrice()));
+        h = mix(h, Double.doubleToLongBits(b.getRating()));
+        h = mix(h, ((long) b.getNumRated() << 32) | (b.getGenreId() & 0xFFFFFFFFL));
+        h = mix(h, b.getSubGenreId());
+        return finish(h);
+    }
+
+    /**
+     * Stable identity of a CSV row across exports: the product's ASIN within its
+     * sub-genre (a book can be listed under several), or the export's index column
+     * when the URL has no ASIN. Null when neither is available.
+     */
+    public static String sourceKey(String index, String url, int subGenreId) {
+        Matcher m = url == null ? null : ASIN.matcher(url);
+        if (m != null && m.find()) return m.group(1).toUpperCase(Locale.ROOT) + "/" + subGenreId;
+        if (index == null || index.isBlank()) return null;
+        return "#" + index.trim();
+    }
+
+    // Lower case, trimmed, every whitespace run turned into one space
+    static String normalize(String text) {
+        if (text == null) return "";
+
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) sb.append(' ');
+                sb.append(c);
+                space = false;
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // ASIN of an Amazon URL, or the normalized URL when there is none
+    static String productKey(String url) {
+        if (url == null) return "";
+        Matcher m = ASIN.matcher(url);
+        return m.find() ? m.group(1).toUpperCase(Locale.ROOT) : normalize(url);
+    }
+
+    // FNV-1a over the chars, then a separator
+    private static long mix(long h, String field) {
+        for (int i = 0; i < field.length(); i++) {
+            h ^= field.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= 0x1F; // unit separator, never left in a normalized field
+        return h * FNV_PRIME;
+    }
+
+    private static long mix(long h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (value >>> (i * 8)) & 0xFF;
+            h *= FNV_PRIME;
+        }
+        h ^= 0x1F;
+        return h * FNV_PRIME;
+    }
+
+    // MurmurHash3 finalizer: spreads FNV's weak low bits over the whole word
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
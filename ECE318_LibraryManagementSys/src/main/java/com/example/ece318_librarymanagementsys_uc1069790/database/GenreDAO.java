@@ -56,6 +56,7 @@ public class GenreDAO extends BaseDAO<Genre> implements DAO<Genre> {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        GenreDictionary.invalidate();
     }
 
 
@@ -80,44 +81,13 @@ public class GenreDAO extends BaseDAO<Genre> implements DAO<Genre> {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        GenreDictionary.invalidate();
     }
 
-    public List<String> getAllGenreNames() {
-        List<String> list = new ArrayList<>();
-        String sql = "SELECT name FROM genres ORDER BY name";
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement s = c.prepareStatement(sql);
-             ResultSet rs = s.executeQuery()) {
-
-            while (rs.next()) list.add(rs.getString("name"));
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return list;
-    }
-
-    public int findIdByName(String name) {
-        if (name == null || name.isBlank()) return 0;
-
-        String sql = "SELECT id FROM genres WHERE name = ?";
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement s = c.prepareStatement(sql)) {
-
-            s.setString(1, name);
-
-            try (ResultSet rs = s.executeQuery()) {
-                if (rs.next()) return rs.getInt("id");
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return 0;
+    @Override
+    public void deleteById(int id) {
+        super.deleteById(id);
+        GenreDictionary.invalidate();
     }
 
     public static final class GenreStat {
@@ -136,54 +106,6 @@ public class GenreDAO extends BaseDAO<Genre> implements DAO<Genre> {
         }
     }
 
-    public List<GenreStat> getGenreStats() {
-
-        String sql = """
-    SELECT
-        g.id,
-        g.name,
-
-        -- total books comes from subgenres table
-        COALESCE((SELECT SUM(s.num_books)
-                  FROM subgenres s
-                  WHERE s.genre_id = g.id), 0) AS total_books,
-
-        -- AVG rating based on genre_id, not name
-        COALESCE((SELECT ROUND(AVG(b.rating), 2)
-                  FROM books b
-                  WHERE b.genre_id = g.id), 0.00) AS avg_rating,
-
-        -- AVG price based on genre_id, not name
-        COALESCE((SELECT ROUND(AVG(b.price), 2)
-                  FROM books b
-                  WHERE b.genre_id = g.id), 0.00) AS avg_price
-
-    FROM genres g
-    ORDER BY g.id
-""";
-        List<GenreStat> out = new ArrayList<>();
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                out.add(new GenreStat(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("total_books"),
-                        rs.getDouble("avg_rating"),
-                        rs.getDouble("avg_price")
-                ));
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return out;
-    }
-
     public void recountSubGenres(int genreId) {
         String sql = """
             UPDATE genres SET num_subgenres =
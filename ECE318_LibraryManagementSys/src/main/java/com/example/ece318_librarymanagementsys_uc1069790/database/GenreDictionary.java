@@ -0,0 +1,170 @@
+package com.example.ece318_librarymanagementsys.database;
+
+import com.example.ece318_librarymanagementsys.model.Genre;
+import com.example.ece318_librarymanagementsys.model.SubGenre;
+
+import javafx.application.Platform;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide id/name dictionary for genres and sub-genres.
+ *
+ * Both tables are read into immutable maps. Every genre or sub-genre write calls
+ * {@link #invalidate()}, which reloads them on a background thread while lookups
+ * keep answering from the previous maps. The FX thread never reads the tables: before
+ * the first load it sees an empty dictionary. A failed load is not kept, so the
+ * next one tries again. Lookups are O(1) and thread-safe. Name lookups are
+ * case-insensitive and ignore surrounding whitespace.
+ */
+public final class GenreDictionary {
+
+    private static final AtomicLong generation = new AtomicLong();
+    private static volatile Snapshot snapshot;
+
+    private static final Snapshot EMPTY = new Snapshot(0, List.of(), List.of());
+    private static final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private static final ExecutorService RELOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "genre-dictionary");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private GenreDictionary() {}
+
+    public static String genreName(int genreId) {
+        return current().genreNames.get(genreId);
+    }
+
+    // 0 when unknown
+    public static int genreId(String name) {
+        return current().genreIds.getOrDefault(normalize(name), 0);
+    }
+
+    public static String subGenreName(int subGenreId) {
+        return current().subGenreNames.get(subGenreId);
+    }
+
+    // 0 when unknown; if several genres share the name the last one loaded wins
+    public static int subGenreId(String name) {
+        return current().subGenreIds.getOrDefault(normalize(name), 0);
+    }
+
+    // Sub-genre with that name under the given genre, 0 when unknown
+    public static int subGenreId(int genreId, String name) {
+        Map<String, Integer> byName = current().subGenreIdsByGenre.get(genreId);
+        return byName == null ? 0 : byName.getOrDefault(normalize(name), 0);
+    }
+
+    public static int genreIdOfSubGenre(int subGenreId) {
+        return current().subGenreToGenre.getOrDefault(subGenreId, 0);
+    }
+
+    // Genre names, sorted
+    public static List<String> genreNames() {
+        return current().sortedGenreNames;
+    }
+
+    // Genre name -> sorted sub-genre names, only for sub-genres whose genre exists
+    public static Map<String, List<String>> subGenreNamesByGenre() {
+        return current().subGenreNamesByGenre;
+    }
+
+    // Marks the maps stale and reloads them in the background; called by every genre/sub-genre write
+    public static void invalidate() {
+        generation.incrementAndGet();
+        if (reloadQueued.compareAndSet(false, true)) {
+            RELOADER.execute(() -> {
+                reloadQueued.set(false);
+                try {
+                    loadIfStale();
+                } catch (RuntimeException e) {
+                    e.printStackTrace(); // the previous maps stay in use
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the tables now unless the maps already reflect the latest write. For
+     * background threads that are about to show genre names (e.g. a data refresh);
+     * a failed read throws and leaves the previous maps in place.
+     */
+    public static void loadIfStale() {
+        Snapshot s = snapshot;
+        if (s != null && s.generation == generation.get()) return;
+
+        synchronized (GenreDictionary.class) {
+            s = snapshot;
+            long gen = generation.get();
+            if (s != null && s.generation == gen) return;
+
+            Snapshot loaded = new Snapshot(gen, new GenreDAO().getAll(), new SubGenreDAO().getAll());
+            // a write that raced with the load leaves it marked stale for the next reload
+            if (s == null || s.generation < gen) snapshot = loaded;
+        }
+    }
+
+    private static Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+
+        // nothing loaded yet: the FX thread must not wait for the database
+        if (Platform.isFxApplicationThread()) {
+            invalidate();
+            return EMPTY;
+        }
+        loadIfStale();
+        return snapshot;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        final Map<Integer, String> genreNames = new HashMap<>();
+        final Map<String, Integer> genreIds = new HashMap<>();
+        final Map<Integer, String> subGenreNames = new HashMap<>();
+        final Map<String, Integer> subGenreIds = new HashMap<>();
+        final Map<Integer, Map<String, Integer>> subGenreIdsByGenre = new HashMap<>();
+        final Map<Integer, Integer> subGenreToGenre = new HashMap<>();
+        final List<String> sortedGenreNames;
+        final Map<String, List<String>> subGenreNamesByGenre;
+        // Value of the write counter when the tables were read
+        final long generation;
+
+        Snapshot(long generation, List<Genre> genres, List<SubGenre> subGenres) {
+            this.generation = generation;
+            for (Genre g : genres) {
+                genreNames.put(g.getId(), g.getName());
+                genreIds.put(normalize(g.getName()), g.getId());
+            }
+
+            Map<String, List<String>> grouped = new HashMap<>();
+            for (SubGenre sg : subGenres) {
+                subGenreNames.put(sg.getId(), sg.getName());
+                subGenreIds.put(normalize(sg.getName()), sg.getId());
+                subGenreToGenre.put(sg.getId(), sg.getGenreId());
+                subGenreIdsByGenre.computeIfAbsent(sg.getGenreId(), k -> new HashMap<>())
+                        .put(normalize(sg.getName()), sg.getId());
+
+                String genreName = genreNames.get(sg.getGenreId());
+                if (genreName != null) {
+                    grouped.computeIfAbsent(genreName, k -> new ArrayList<>()).add(sg.getName());
+                }
+            }
+
+            List<String> names = new ArrayList<>(genreNames.values());
+            names.sort(String.CASE_INSENSITIVE_ORDER);
+            sortedGenreNames = List.copyOf(names);
+
+            grouped.values().forEach(list -> list.sort(String.CASE_INSENSITIVE_ORDER));
+            subGenreNamesByGenre = Collections.unmodifiableMap(grouped);
+        }
+    }
+}
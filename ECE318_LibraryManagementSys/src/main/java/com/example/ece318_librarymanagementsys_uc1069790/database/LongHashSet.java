@@ -0,0 +1,65 @@
+package com.example.ece318_librarymanagementsys.database;
+
+/**
+ * Set of primitive longs with open addressing and linear probing: one long[]
+ * slot per entry, no boxing. Zero marks an empty slot, so the value 0 itself is
+ * tracked by a flag. Only {@link #add} is needed to drop repeats. Not thread-safe.
+ */
+public final class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    // Occupied slots, the zero flag aside
+    private int size;
+    private boolean hasZero;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(1024);
+    }
+
+    public LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        slots = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /** Adds the value; false when it was already present. */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            return true;
+        }
+
+        int mask = slots.length - 1;
+        int i = index(value, mask);
+        while (slots[i] != 0) {
+            if (slots[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size > resizeAt) grow();
+        return true;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        resizeAt = (int) (slots.length * LOAD_FACTOR);
+
+        int mask = slots.length - 1;
+        for (long v : old) {
+            if (v == 0) continue;
+            int i = index(v, mask);
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = v;
+        }
+    }
+
+    // Values are already well-mixed hashes; folding the high half in is enough
+    private static int index(long value, int mask) {
+        return (int) (value ^ (value >>> 32)) & mask;
+    }
+}
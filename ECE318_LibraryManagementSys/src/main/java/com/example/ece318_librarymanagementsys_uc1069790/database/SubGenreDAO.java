@@ -55,6 +55,7 @@ public class SubGenreDAO extends BaseDAO<SubGenre> implements DAO<SubGenre> {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        GenreDictionary.invalidate();
     }
 
     public void updateSubGenre(SubGenre subGenre) {
@@ -82,95 +83,16 @@ public class SubGenreDAO extends BaseDAO<SubGenre> implements DAO<SubGenre> {
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        GenreDictionary.invalidate();
     }
 
-
-    public Map<String, List<String>> getAllSubGenreNamesDetailed() {
-        Map<String, List<String>> map = new HashMap<>();
-        String sql = """
-            SELECT g.name AS genre_name, s.name AS sub_name
-            FROM subgenres s
-            JOIN genres g ON s.genre_id = g.id
-            ORDER BY g.name, s.name
-        """;
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement s = c.prepareStatement(sql);
-             ResultSet rs = s.executeQuery()) {
-
-            while (rs.next()) {
-                map.computeIfAbsent(rs.getString("genre_name"), k -> new ArrayList<>())
-                        .add(rs.getString("sub_name"));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return map;
-    }
-
-    public static final class SubGenreStat {
-        public final int id;
-        public final String name;
-        public final String mainGenre;
-        public final int totalBooks;
-        public final double avgRating;
-        public final double avgPrice;
-
-        public SubGenreStat(int id, String name, String mainGenre, int totalBooks, double avgRating, double avgPrice) {
-            this.id = id;
-            this.name = name;
-            this.mainGenre = mainGenre;
-            this.totalBooks = totalBooks;
-            this.avgRating = avgRating;
-            this.avgPrice = avgPrice;
-        }
+    @Override
+    public void deleteById(int id) {
+        super.deleteById(id);
+        GenreDictionary.invalidate();
     }
 
-    public List<SubGenreStat> getSubGenreStats() {
-        String sql = """
-    SELECT
-        s.id,
-        s.name,
-        s.main_genre,
-        s.num_books AS total_books,
-
-        -- FIX: use subgenre_id instead of sub_genre text
-        COALESCE((SELECT ROUND(AVG(b.rating), 2)
-                  FROM books b
-                  WHERE b.subgenre_id = s.id), 0.00) AS avg_rating,
-
-        COALESCE((SELECT ROUND(AVG(b.price), 2)
-                  FROM books b
-                  WHERE b.subgenre_id = s.id), 0.00) AS avg_price
-
-    FROM subgenres s
-    ORDER BY s.id
-""";
-
 
-        List<SubGenreStat> out = new ArrayList<>();
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                out.add(new SubGenreStat(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("main_genre"),
-                        rs.getInt("total_books"),
-                        rs.getDouble("avg_rating"),
-                        rs.getDouble("avg_price")
-                ));
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return out;
-    }
     public void incrementBookCount(int subGenreId) {
         if (subGenreId <= 0) return;
 
@@ -186,6 +108,34 @@ public class SubGenreDAO extends BaseDAO<SubGenre> implements DAO<SubGenre> {
         }
     }
 
+    /**
+     * Sets every sub-genre's count from the books table on the caller's connection and
+     * transaction. Bulk imports and syncs call it instead of adjusting counts row by row.
+     */
+    public static void recountBooks(Connection conn) throws SQLException {
+        String sql = """
+            UPDATE subgenres s
+            SET num_books = (SELECT COUNT(*) FROM books b WHERE b.subgenre_id = s.id)
+            """;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    // Lowers several sub-genre counts on the caller's connection and transaction
+    static void decrementBookCounts(Connection conn, Map<Integer, Integer> removedPerSubGenre) throws SQLException {
+        String sql = "UPDATE subgenres SET num_books = GREATEST(num_books - ?, 0) WHERE id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Integer> e : removedPerSubGenre.entrySet()) {
+                if (e.getKey() <= 0) continue;
+                ps.setInt(1, e.getValue());
+                ps.setInt(2, e.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
     public void decrementBookCount(int subGenreId) {
         if (subGenreId <= 0) return;
 
@@ -1,6 +1,8 @@
 package com.example.ece318_librarymanagementsys.model;
 
-import com.example.ece318_librarymanagementsys.database.*;
+import com.example.ece318_librarymanagementsys.database.GenreDictionary;
+
+import java.util.Objects;
 
 public class Book extends BaseEntity {
 
@@ -57,28 +59,28 @@ public class Book extends BaseEntity {
         return searchText;
     }
 
-    private transient String resolvedMainGenre;
-    private transient String resolvedSubGenre;
-
-    public String getResolvedMainGenreCached() {
-        if (resolvedMainGenre == null) {
-            Genre g = new GenreDAO().findById(genreId);
-            resolvedMainGenre = (g != null) ? g.getName() : mainGenre;
-        }
-        return resolvedMainGenre;
+    // Current genre/sub-genre names by id, falling back to the stored text
+    public String getResolvedMainGenre() {
+        String name = GenreDictionary.genreName(genreId);
+        return name != null ? name : mainGenre;
     }
 
-    public String getResolvedSubGenreCached() {
-        if (resolvedSubGenre == null) {
-            SubGenre sg = new SubGenreDAO().findById(subGenreId);
-            resolvedSubGenre = (sg != null) ? sg.getName() : subGenre;
-        }
-        return resolvedSubGenre;
+    public String getResolvedSubGenre() {
+        String name = GenreDictionary.subGenreName(subGenreId);
+        return name != null ? name : subGenre;
     }
 
-    public void refreshResolveCache() {
-        resolvedMainGenre = null;
-        resolvedSubGenre = null;
+    // Same stored values, id included
+    public boolean sameValues(Book o) {
+        return o != null && id == o.id
+                && price == o.price && rating == o.rating && numRated == o.numRated
+                && genreId == o.genreId && subGenreId == o.subGenreId
+                && Objects.equals(title, o.title)
+                && Objects.equals(author, o.author)
+                && Objects.equals(mainGenre, o.mainGenre)
+                && Objects.equals(subGenre, o.subGenre)
+                && Objects.equals(type, o.type)
+                && Objects.equals(url, o.url);
     }
 
     @Override
@@ -0,0 +1,26 @@
+package com.example.ece318_librarymanagementsys.model;
+
+// Sub-genre as shown in the sub-genres table: the genre name and the statistics
+// are resolved up front, so rendering and sorting never go back to the database.
+public class SubGenreRow extends SubGenre {
+
+    private final String genreName;
+    private final int totalBooks;
+    private final double avgRating;
+    private final double avgPrice;
+
+    public SubGenreRow(SubGenre sg, String genreName,
+                       int totalBooks, double avgRating, double avgPrice) {
+        super(sg.getId(), sg.getName(), sg.getMainGenre(),
+                sg.getNumBooks(), sg.getUrl(), sg.getGenreId());
+        this.genreName = genreName;
+        this.totalBooks = totalBooks;
+        this.avgRating = avgRating;
+        this.avgPrice = avgPrice;
+    }
+
+    public String getGenreName() { return genreName; }
+    public int getTotalBooks() { return totalBooks; }
+    public double getAvgRating() { return avgRating; }
+    public double getAvgPrice() { return avgPrice; }
+}
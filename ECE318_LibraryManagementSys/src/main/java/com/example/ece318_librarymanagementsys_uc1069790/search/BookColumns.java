@@ -0,0 +1,207 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the numeric book fields, kept next to a live book list.
+ *
+ * Each book owns one slot; its price, rating and rating count sit in parallel
+ * primitive arrays next to its genre and sub-genre ids. Aggregates and facet
+ * tallies are plain loops over those arrays instead of walks over scattered Book
+ * objects. A removed book's slot is filled with the last one, so the columns stay
+ * dense. Like the list, it is only used on the FX thread.
+ *
+ * Sorting and range filters are not answered here: the slots are unordered, so
+ * {@link BookOrder} keeps the sorted ids and its {@code range} does the binary
+ * searches. The book type is left on the Book since nothing tallies by it.
+ */
+public class BookColumns {
+
+    // Above this many rows an aggregate is split over the common fork-join pool
+    private static final int PARALLEL_THRESHOLD = 100_000;
+    private static final int CHUNK = 16_384;
+
+    public enum Column { PRICE, RATING, NUM_RATED }
+
+    private int size = 0;
+    private Book[] rows = new Book[16];
+    private double[] price = new double[16];
+    private double[] rating = new double[16];
+    private int[] numRated = new int[16];
+    private int[] genreId = new int[16];
+    private int[] subGenreId = new int[16];
+
+    // book id -> slot, -1 when absent
+    private int[] slotOfId = new int[0];
+
+    private int maxGenreId = 0;
+    private int maxSubGenreId = 0;
+
+    /** Count and averages of one set of books. */
+    public static final class Summary {
+        public int count;
+        public double priceSum, ratingSum;
+
+        public double avgPrice() {
+            return count == 0 ? 0 : priceSum / count;
+        }
+
+        public double avgRating() {
+            return count == 0 ? 0 : ratingSum / count;
+        }
+
+        private Summary merge(Summary o) {
+            count += o.count;
+            priceSum += o.priceSum;
+            ratingSum += o.ratingSum;
+            return this;
+        }
+    }
+
+    public BookColumns(ObservableList<Book> books) {
+        for (Book b : books) add(b);
+
+        books.addListener((ListChangeListener<Book>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+                for (Book b : change.getRemoved()) remove(b);
+                for (Book b : change.getAddedSubList()) add(b);
+            }
+        });
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Row adapter for table cells: reads the column, not the Book
+    public double value(Column column, Book b) {
+        int slot = slotOf(b.getId());
+        return slot < 0 ? 0 : value(column, slot);
+    }
+
+    /** Count and averages over the given book ids, or over all books when ids is null. */
+    public Summary summarize(BitSet ids) {
+        int[] slots = slots(ids);
+        int n = slots == null ? size : slots.length;
+
+        if (n < PARALLEL_THRESHOLD) return summarize(slots, 0, n);
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> summarize(slots, c * CHUNK, Math.min(n, (c + 1) * CHUNK)))
+                .reduce(Summary::merge)
+                .orElseGet(Summary::new);
+    }
+
+    /**
+     * Books per genre id and per sub-genre id among the given ids (all when null),
+     * in one pass: result[0][genreId], result[1][subGenreId].
+     */
+    public int[][] tallyFacets(BitSet ids) {
+        int[] perGenre = new int[maxGenreId + 1];
+        int[] perSubGenre = new int[maxSubGenreId + 1];
+        int[] slots = slots(ids);
+        int n = slots == null ? size : slots.length;
+
+        for (int i = 0; i < n; i++) {
+            int slot = slots == null ? i : slots[i];
+            if (genreId[slot] >= 0) perGenre[genreId[slot]]++;
+            if (subGenreId[slot] >= 0) perSubGenre[subGenreId[slot]]++;
+        }
+        return new int[][]{perGenre, perSubGenre};
+    }
+
+    private Summary summarize(int[] slots, int from, int to) {
+        Summary s = new Summary();
+        for (int i = from; i < to; i++) {
+            int slot = slots == null ? i : slots[i];
+            s.priceSum += price[slot];
+            s.ratingSum += rating[slot];
+        }
+        s.count = to - from;
+        return s;
+    }
+
+    // Slots of the given ids, or null meaning every slot in order
+    private int[] slots(BitSet ids) {
+        if (ids == null) return null;
+        int[] out = new int[ids.cardinality()];
+        int n = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            int slot = slotOf(id);
+            if (slot >= 0) out[n++] = slot;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private double value(Column column, int slot) {
+        switch (column) {
+            case PRICE: return price[slot];
+            case RATING: return rating[slot];
+            default: return numRated[slot];
+        }
+    }
+
+    private int slotOf(int id) {
+        return id >= 0 && id < slotOfId.length ? slotOfId[id] : -1;
+    }
+
+    private void add(Book b) {
+        int id = b.getId();
+        if (slotOf(id) >= 0) remove(rows[slotOf(id)]);
+
+        if (size == rows.length) grow();
+        if (id >= slotOfId.length) {
+            int old = slotOfId.length;
+            slotOfId = Arrays.copyOf(slotOfId, Math.max(id + 1, old + (old >> 1)));
+            Arrays.fill(slotOfId, old, slotOfId.length, -1);
+        }
+
+        int s = size++;
+        rows[s] = b;
+        price[s] = b.getPrice();
+        rating[s] = b.getRating();
+        numRated[s] = b.getNumRated();
+        genreId[s] = b.getGenreId();
+        subGenreId[s] = b.getSubGenreId();
+        slotOfId[id] = s;
+        maxGenreId = Math.max(maxGenreId, b.getGenreId());
+        maxSubGenreId = Math.max(maxSubGenreId, b.getSubGenreId());
+    }
+
+    private void remove(Book b) {
+        int s = slotOf(b.getId());
+        // the slot may already hold a newer Book with the same id
+        if (s < 0 || rows[s] != b) return;
+
+        int last = --size;
+        if (s != last) {
+            rows[s] = rows[last];
+            price[s] = price[last];
+            rating[s] = rating[last];
+            numRated[s] = numRated[last];
+            genreId[s] = genreId[last];
+            subGenreId[s] = subGenreId[last];
+            slotOfId[rows[s].getId()] = s;
+        }
+        rows[last] = null;
+        slotOfId[b.getId()] = -1;
+    }
+
+    private void grow() {
+        int n = rows.length + (rows.length >> 1) + 1;
+        rows = Arrays.copyOf(rows, n);
+        price = Arrays.copyOf(price, n);
+        rating = Arrays.copyOf(rating, n);
+        numRated = Arrays.copyOf(numRated, n);
+        genreId = Arrays.copyOf(genreId, n);
+        subGenreId = Arrays.copyOf(subGenreId, n);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.database.GenreDictionary;
+import com.example.ece318_librarymanagementsys.model.Book;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Genre and sub-genre id → bitset of book ids, for the facet filters.
+ *
+ * Kept in step with a live book list like {@link BookSearchIndex}. Facets are
+ * keyed by id, so renaming a genre does not touch the index; the checked names
+ * are resolved through the genre dictionary when a filter is applied. A filter
+ * pass is then one OR per checked facet. Label counts come from one pass over
+ * the hits in the book columns.
+ */
+public class BookFacetIndex {
+
+    private final Map<Integer, BitSet> byGenre = new HashMap<>();
+    private final Map<Integer, BitSet> bySubGenre = new HashMap<>();
+    private final BookColumns columns;
+
+    /** Facet label → number of books it would show, for the filter dropdowns. */
+    public static final class Counts {
+        public final Map<String, Integer> genres = new HashMap<>();
+        public final Map<String, Integer> subGenres = new HashMap<>();
+    }
+
+    public BookFacetIndex(ObservableList<Book> books, BookColumns columns) {
+        this.columns = columns;
+        for (Book b : books) add(b);
+
+        books.addListener((ListChangeListener<Book>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+                for (Book b : change.getRemoved()) remove(b);
+                for (Book b : change.getAddedSubList()) add(b);
+            }
+        });
+    }
+
+    /**
+     * Ids of books passing the checked genres and sub-genres. A checked genre
+     * contributes all its books, unless some of its own sub-genres are checked
+     * too; then only theirs. With no genre checked, every book of a checked
+     * sub-genre (under any genre) passes.
+     */
+    public BitSet select(Set<String> genres, Set<String> subGenres) {
+        Map<String, List<String>> tree = GenreDictionary.subGenreNamesByGenre();
+        BitSet result = new BitSet();
+
+        if (!genres.isEmpty()) {
+            for (String genre : genres) {
+                int genreId = GenreDictionary.genreId(genre);
+                if (!orSubGenres(result, genreId, tree.get(genre), subGenres)) {
+                    or(result, byGenre.get(genreId));
+                }
+            }
+            return result;
+        }
+
+        for (Map.Entry<String, List<String>> e : tree.entrySet()) {
+            orSubGenres(result, GenreDictionary.genreId(e.getKey()), e.getValue(), subGenres);
+        }
+        return result;
+    }
+
+    /**
+     * Per-label counts within scope (null = all books). A genre counts what
+     * checking it would add under the current sub-genre checks; a sub-genre name
+     * counts its books under the checked genres, or under any genre if none is.
+     */
+    public Counts count(BitSet scope, Set<String> genres, Set<String> subGenres) {
+        int[][] tally = columns.tallyFacets(scope);
+        int[] perGenre = tally[0];
+        int[] perSubGenre = tally[1];
+
+        Counts counts = new Counts();
+        for (Map.Entry<String, List<String>> e : GenreDictionary.subGenreNamesByGenre().entrySet()) {
+            String genre = e.getKey();
+            int genreId = GenreDictionary.genreId(genre);
+            boolean listed = genres.isEmpty() || genres.contains(genre);
+
+            int narrowed = 0;
+            boolean anyChecked = false;
+            for (String sub : e.getValue()) {
+                int n = at(perSubGenre, GenreDictionary.subGenreId(genreId, sub));
+                if (subGenres.contains(sub)) {
+                    narrowed += n;
+                    anyChecked = true;
+                }
+                if (listed) counts.subGenres.merge(sub, n, Integer::sum);
+            }
+            counts.genres.put(genre, anyChecked ? narrowed : at(perGenre, genreId));
+        }
+        // genres without sub-genres are not in the tree
+        for (String genre : GenreDictionary.genreNames()) {
+            counts.genres.putIfAbsent(genre, at(perGenre, GenreDictionary.genreId(genre)));
+        }
+        return counts;
+    }
+
+    private static int at(int[] counts, int facetId) {
+        return facetId > 0 && facetId < counts.length ? counts[facetId] : 0;
+    }
+
+    // ORs in the checked sub-genres among one genre's; false when none of them is checked
+    private boolean orSubGenres(BitSet result, int genreId, List<String> names, Set<String> checked) {
+        if (names == null || checked.isEmpty()) return false;
+
+        boolean any = false;
+        for (String name : names) {
+            if (!checked.contains(name)) continue;
+            or(result, bySubGenre.get(GenreDictionary.subGenreId(genreId, name)));
+            any = true;
+        }
+        return any;
+    }
+
+    private static void or(BitSet result, BitSet facet) {
+        if (facet != null) result.or(facet);
+    }
+
+    private void add(Book b) {
+        byGenre.computeIfAbsent(b.getGenreId(), k -> new BitSet()).set(b.getId());
+        bySubGenre.computeIfAbsent(b.getSubGenreId(), k -> new BitSet()).set(b.getId());
+    }
+
+    private void remove(Book b) {
+        clear(byGenre, b.getGenreId(), b.getId());
+        clear(bySubGenre, b.getSubGenreId(), b.getId());
+    }
+
+    private static void clear(Map<Integer, BitSet> facets, int facetId, int bookId) {
+        BitSet bits = facets.get(facetId);
+        if (bits == null) return;
+        bits.clear(bookId);
+        if (bits.isEmpty()) facets.remove(facetId);
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best rated, most reviewed, best weighted and cheapest books per genre and per
+ * sub-genre, kept next to a live book list.
+ *
+ * Every group holds one small min-heap per board whose root is its weakest entry,
+ * so an added or edited book costs a comparison with the root and at most one
+ * O(log K) sift; nothing is ever sorted beyond the K entries being shown. Heaps
+ * keep twice the entries shown, so deletes rarely empty them; a group whose heap
+ * has fallen below what it should show is rescanned from its own members on the
+ * next read. Only used on the FX thread.
+ */
+public class BookLeaderboards {
+
+    public enum Board {
+        BEST_RATED("Best rated"),
+        MOST_REVIEWED("Most reviewed"),
+        WEIGHTED("Top weighted rating"),
+        CHEAPEST("Cheapest");
+
+        private final String label;
+
+        Board(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // Entries shown per board; heaps keep twice as many to absorb deletes
+    public static final int TOP = 10;
+    private static final int CAPACITY = TOP * 2;
+
+    // Relative change of the catalogue means that re-scores the weighted boards
+    private static final double PRIOR_DRIFT = 0.01;
+
+    private final Map<Integer, Group> byGenre = new HashMap<>();
+    private final Map<Integer, Group> bySubGenre = new HashMap<>();
+
+    // Current book per id, null when absent
+    private Book[] byId = new Book[0];
+
+    // Catalogue totals behind the weighted rating prior
+    private int count = 0;
+    private double ratingSum = 0;
+    private double numRatedSum = 0;
+
+    // Prior the weighted heaps were built with; bumping the generation invalidates them
+    private double priorRating = Double.NaN;
+    private double priorCount = Double.NaN;
+    private int generation = 0;
+
+    public BookLeaderboards(ObservableList<Book> books) {
+        for (Book b : books) add(b);
+
+        books.addListener((ListChangeListener<Book>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+                for (Book b : change.getRemoved()) remove(b);
+                for (Book b : change.getAddedSubList()) add(b);
+            }
+        });
+    }
+
+    /** Up to {@link #TOP} books of a genre on one board, best first. */
+    public List<Book> genreTop(int genreId, Board board) {
+        return top(byGenre.get(genreId), board);
+    }
+
+    public List<Book> subGenreTop(int subGenreId, Board board) {
+        return top(bySubGenre.get(subGenreId), board);
+    }
+
+    /**
+     * Bayesian weighted rating: the book's rating pulled towards the catalogue mean,
+     * with the mean rating count as the weight of the prior, so a 5.0 from three
+     * readers does not outrank a 4.7 from thousands.
+     */
+    public double weightedRating(Book b) {
+        refreshPrior();
+        return weighted(b);
+    }
+
+    private List<Book> top(Group group, Board board) {
+        if (group == null) return List.of();
+        if (board == Board.WEIGHTED) refreshPrior();
+
+        Heap heap = group.heaps[board.ordinal()];
+        if (heap.stale(group.size)) group.rebuild(heap);
+
+        // best first, ties to the lower id, as in Heap.compare
+        long[] keys = new long[heap.n];
+        for (int i = 0; i < heap.n; i++) {
+            int id = heap.ids[i];
+            keys[i] = RankKeys.descending(score(board, byId[id]), id);
+        }
+        Arrays.sort(keys);
+
+        List<Book> out = new ArrayList<>(Math.min(TOP, keys.length));
+        for (int i = 0; i < keys.length && i < TOP; i++) out.add(byId[RankKeys.value(keys[i])]);
+        return out;
+    }
+
+    // Takes a new prior snapshot once the catalogue means have moved far enough
+    private void refreshPrior() {
+        double meanRating = count == 0 ? 0 : ratingSum / count;
+        double meanCount = count == 0 ? 0 : numRatedSum / count;
+        if (!Double.isNaN(priorRating)
+                && Math.abs(meanRating - priorRating) <= PRIOR_DRIFT * Math.max(1, priorRating)
+                && Math.abs(meanCount - priorCount) <= PRIOR_DRIFT * Math.max(1, priorCount)) {
+            return;
+        }
+        priorRating = meanRating;
+        priorCount = meanCount;
+        generation++;
+    }
+
+    private double weighted(Book b) {
+        double v = b.getNumRated();
+        return v + priorCount == 0 ? b.getRating()
+                : (v * b.getRating() + priorCount * priorRating) / (v + priorCount);
+    }
+
+    private double score(Board board, Book b) {
+        switch (board) {
+            case BEST_RATED: return b.getRating();
+            case MOST_REVIEWED: return b.getNumRated();
+            case WEIGHTED: return weighted(b);
+            default: return -b.getPrice();
+        }
+    }
+
+    private void add(Book b) {
+        int id = b.getId();
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length + (byId.length >> 1)));
+        }
+        if (byId[id] != null) remove(byId[id]);
+
+        byId[id] = b;
+        count++;
+        ratingSum += b.getRating();
+        numRatedSum += b.getNumRated();
+
+        byGenre.computeIfAbsent(b.getGenreId(), k -> new Group()).add(id);
+        bySubGenre.computeIfAbsent(b.getSubGenreId(), k -> new Group()).add(id);
+    }
+
+    private void remove(Book b) {
+        int id = b.getId();
+        if (id >= byId.length || byId[id] != b) return;
+
+        Book stored = byId[id];
+        count--;
+        ratingSum -= stored.getRating();
+        numRatedSum -= stored.getNumRated();
+
+        remove(byGenre, stored.getGenreId(), id);
+        remove(bySubGenre, stored.getSubGenreId(), id);
+        byId[id] = null;
+    }
+
+    private static void remove(Map<Integer, Group> groups, int groupId, int id) {
+        Group group = groups.get(groupId);
+        if (group == null) return;
+        group.remove(id);
+        if (group.size == 0) groups.remove(groupId);
+    }
+
+    private final class Group {
+        final BitSet members = new BitSet();
+        int size = 0;
+        final Heap[] heaps = new Heap[Board.values().length];
+
+        Group() {
+            for (Board board : Board.values()) heaps[board.ordinal()] = new Heap(board);
+        }
+
+        void add(int id) {
+            members.set(id);
+            size++;
+            for (Heap heap : heaps) heap.offer(id, heap.n == size - 1);
+        }
+
+        void remove(int id) {
+            members.clear(id);
+            size--;
+            for (Heap heap : heaps) heap.remove(id);
+        }
+
+        void rebuild(Heap heap) {
+            heap.n = 0;
+            heap.generation = generation;
+            for (int id = members.nextSetBit(0); id >= 0; id = members.nextSetBit(id + 1)) {
+                heap.offer(id, true);
+            }
+        }
+    }
+
+    // Bounded min-heap of book ids, weakest entry at the root
+    private final class Heap {
+        final Board board;
+        final int[] ids = new int[CAPACITY + 1];
+        int n = 0;
+        int generation = -1; // weighted heaps wait for the first prior
+
+        Heap(Board board) {
+            this.board = board;
+        }
+
+        // Too few entries for what the group should show, or scored with an old prior
+        boolean stale(int groupSize) {
+            return n < Math.min(TOP, groupSize)
+                    || (board == Board.WEIGHTED && generation != BookLeaderboards.this.generation);
+        }
+
+        // complete: the heap holds every member, so a book below the root still belongs
+        void offer(int id, boolean complete) {
+            if (board == Board.WEIGHTED && generation != BookLeaderboards.this.generation) return;
+
+            if (complete && n < CAPACITY) {
+                push(id);
+            } else if (n > 0 && compare(id, ids[0]) > 0) {
+                push(id);
+                if (n > CAPACITY) removeAt(0);
+            }
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == id) {
+                    removeAt(i);
+                    return;
+                }
+            }
+        }
+
+        // > 0 when book a ranks above book b; ties go to the lower id
+        int compare(int a, int b) {
+            int c = Double.compare(score(board, byId[a]), score(board, byId[b]));
+            return c != 0 ? c : Integer.compare(b, a);
+        }
+
+        private void push(int id) {
+            ids[n] = id;
+            siftUp(n++);
+        }
+
+        private void removeAt(int i) {
+            ids[i] = ids[--n];
+            if (i < n) {
+                siftDown(i);
+                siftUp(i);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (compare(ids[i], ids[parent]) >= 0) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, min = i;
+                if (l < n && compare(ids[l], ids[min]) < 0) min = l;
+                if (r < n && compare(ids[r], ids[min]) < 0) min = r;
+                if (min == i) return;
+                swap(i, min);
+                i = min;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int t = ids[i];
+            ids[i] = ids[j];
+            ids[j] = t;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Book ids kept sorted by title, author, price, rating and rating count, next to
+ * a live book list.
+ *
+ * Each order is built once with a parallel sort the first time it is asked for.
+ * After that single adds, edits and deletes move one id with a binary search and
+ * an array shift; a change touching a large part of the list (a reload) drops
+ * the orders instead, and the next request rebuilds them. Ties are broken by id,
+ * so every order is total. The numeric orders also answer range queries with two
+ * binary searches. Only used on the FX thread.
+ */
+public class BookOrder {
+
+    public enum Key { TITLE, AUTHOR, PRICE, RATING, NUM_RATED }
+
+    private static final Comparator<String> TEXT = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Map<Key, Comparator<Book>> COMPARATORS = new EnumMap<>(Map.of(
+            Key.TITLE, Comparator.comparing(Book::getTitle, TEXT).thenComparingInt(Book::getId),
+            Key.AUTHOR, Comparator.comparing(Book::getAuthor, TEXT).thenComparingInt(Book::getId),
+            Key.PRICE, Comparator.comparingDouble(Book::getPrice).thenComparingInt(Book::getId),
+            Key.RATING, Comparator.comparingDouble(Book::getRating).thenComparingInt(Book::getId),
+            Key.NUM_RATED, Comparator.comparingInt(Book::getNumRated).thenComparingInt(Book::getId)));
+
+    // Current book per id, null when absent
+    private Book[] byId = new Book[0];
+    private int count = 0;
+
+    // Sorted ids per key with their used length; a missing key is rebuilt on demand
+    private final Map<Key, int[]> orders = new EnumMap<>(Key.class);
+    private final Map<Key, Integer> sizes = new EnumMap<>(Key.class);
+
+    public BookOrder(ObservableList<Book> books) {
+        for (Book b : books) put(b);
+
+        books.addListener((ListChangeListener<Book>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+
+                // patching most of the list costs more than sorting it again
+                boolean bulk = change.getRemovedSize() + change.getAddedSize() > Math.max(64, count / 8);
+                if (bulk) orders.clear();
+
+                for (Book b : change.getRemoved()) {
+                    if (!bulk) forEachOrder(key -> delete(key, b));
+                    if (book(b.getId()) == b) {
+                        byId[b.getId()] = null;
+                        count--;
+                    }
+                }
+                for (Book b : change.getAddedSubList()) {
+                    put(b);
+                    if (!bulk) forEachOrder(key -> insert(key, b));
+                }
+            }
+        });
+    }
+
+    // Book with this id, or null
+    public Book book(int id) {
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    // Visits every book id in key order straight from the maintained permutation, without copying it
+    public void forEachId(Key key, boolean descending, IntConsumer action) {
+        int[] ids = sorted(key);
+        int n = sizes.get(key);
+        for (int i = 0; i < n; i++) action.accept(ids[descending ? n - 1 - i : i]);
+    }
+
+    /** Ids of the books whose numeric key lies within [min, max]. */
+    public BitSet range(Key key, double min, double max) {
+        int[] ids = sorted(key);
+        int n = sizes.get(key);
+        int from = lowerBound(key, ids, n, min, false);
+        int to = lowerBound(key, ids, n, max, true);
+
+        BitSet out = new BitSet();
+        for (int i = from; i < to; i++) out.set(ids[i]);
+        return out;
+    }
+
+    // Smallest and largest value of a numeric key, 0 when there are no books
+    public double min(Key key) {
+        int[] ids = sorted(key);
+        return sizes.get(key) == 0 ? 0 : value(key, book(ids[0]));
+    }
+
+    public double max(Key key) {
+        int[] ids = sorted(key);
+        int n = sizes.get(key);
+        return n == 0 ? 0 : value(key, book(ids[n - 1]));
+    }
+
+    private int[] sorted(Key key) {
+        if (!orders.containsKey(key)) rebuild(key);
+        return orders.get(key);
+    }
+
+    // First position whose value is >= bound (or > bound when inclusive is set)
+    private int lowerBound(Key key, int[] ids, int n, double bound, boolean inclusive) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double v = value(key, book(ids[mid]));
+            if (v < bound || (inclusive && v == bound)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static double value(Key key, Book b) {
+        switch (key) {
+            case PRICE: return b.getPrice();
+            case RATING: return b.getRating();
+            case NUM_RATED: return b.getNumRated();
+            default: throw new IllegalArgumentException("Not a numeric key: " + key);
+        }
+    }
+
+    private void rebuild(Key key) {
+        Book[] all = new Book[count];
+        int n = 0;
+        for (Book b : byId) {
+            if (b != null) all[n++] = b;
+        }
+
+        int[] ids = new int[Math.max(16, n + (n >> 3))];
+        if (key == Key.TITLE || key == Key.AUTHOR) {
+            Arrays.parallelSort(all, 0, n, COMPARATORS.get(key));
+            for (int i = 0; i < n; i++) ids[i] = all[i].getId();
+        } else {
+            sortNumeric(key, all, n, ids);
+        }
+        orders.put(key, ids);
+        sizes.put(key, n);
+    }
+
+    /**
+     * Numeric keys sort as primitives: each value is replaced by its rank among the
+     * distinct values, and (rank, id) packed into one long sorts by value then id.
+     */
+    private static void sortNumeric(Key key, Book[] all, int n, int[] ids) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) values[i] = value(key, all[i]);
+
+        double[] distinct = values.clone();
+        Arrays.parallelSort(distinct);
+        int d = 0;
+        for (int i = 0; i < n; i++) {
+            if (d == 0 || Double.compare(distinct[d - 1], distinct[i]) != 0) distinct[d++] = distinct[i];
+        }
+
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            long rank = Arrays.binarySearch(distinct, 0, d, values[i]);
+            packed[i] = (rank << 32) | all[i].getId();
+        }
+        Arrays.parallelSort(packed);
+        for (int i = 0; i < n; i++) ids[i] = (int) packed[i];
+    }
+
+    private void insert(Key key, Book b) {
+        int[] ids = orders.get(key);
+        int n = sizes.get(key);
+        int pos = -search(key, ids, n, b) - 1;
+        if (pos < 0) return; // already there
+
+        if (n == ids.length) {
+            ids = Arrays.copyOf(ids, n + (n >> 1) + 1);
+            orders.put(key, ids);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, n - pos);
+        ids[pos] = b.getId();
+        sizes.put(key, n + 1);
+    }
+
+    private void delete(Key key, Book b) {
+        int[] ids = orders.get(key);
+        int n = sizes.get(key);
+        int pos = search(key, ids, n, b);
+        if (pos < 0) return;
+
+        System.arraycopy(ids, pos + 1, ids, pos, n - pos - 1);
+        sizes.put(key, n - 1);
+    }
+
+    // Binary search by the book's own key, comparing against the stored books
+    private int search(Key key, int[] ids, int n, Book b) {
+        Comparator<Book> cmp = COMPARATORS.get(key);
+        int lo = 0, hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Book other = book(ids[mid]);
+            int c = other == b ? 0 : cmp.compare(other, b);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void forEachOrder(Consumer<Key> action) {
+        for (Key key : Key.values()) {
+            if (orders.containsKey(key)) action.accept(key);
+        }
+    }
+
+    private void put(Book b) {
+        int id = b.getId();
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length + (byId.length >> 1)));
+        }
+        if (byId[id] == null) count++;
+        byId[id] = b;
+    }
+}
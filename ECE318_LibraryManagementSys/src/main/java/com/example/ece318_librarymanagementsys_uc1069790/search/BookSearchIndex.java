@@ -0,0 +1,223 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Search index over the titles and authors of a live book list.
+ *
+ * Attached to the list as a change listener, so every add, edit or delete updates
+ * only the affected postings. A query is answered once as a bitset of book ids;
+ * the table filter then only tests membership. All access happens on the FX
+ * thread, like the list itself.
+ */
+public class BookSearchIndex {
+
+    // Upper bound on completion labels kept once the catalog gets very large
+    private static final int MAX_SUGGESTIONS = 500_000;
+
+    // A title word counts twice as much as an author word when ranking fuzzy hits
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double AUTHOR_WEIGHT = 1.0;
+    // Very broad fuzzy queries only score their most popular hits; the rest follow by popularity
+    private static final int MAX_SCORED = 10_000;
+
+    private final InvertedIndex tokens = new InvertedIndex();
+    private final TrigramIndex trigrams = new TrigramIndex();
+    private final Map<Integer, Book> byId = new HashMap<>();
+    private final SuggestionEngine suggestions = new SuggestionEngine(MAX_SUGGESTIONS);
+
+    // Last answered query; any list change invalidates it
+    private String lastQuery;
+    private BitSet lastResult;
+
+    public BookSearchIndex(ObservableList<Book> books) {
+        for (Book b : books) add(b);
+
+        books.addListener((ListChangeListener<Book>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+                for (Book b : change.getRemoved()) remove(b);
+                for (Book b : change.getAddedSubList()) add(b);
+            }
+            lastQuery = null;
+            lastResult = null;
+        });
+    }
+
+    /**
+     * Ids of books whose title and author contain the query as a substring, as the
+     * plain filter did ("ring" finds "Spring" and "During"), plus books where every
+     * query word starts a title or author word in any order ("ring lord" finds
+     * "The Lord of the Rings"). Substring candidates come from the trigram index.
+     * A query shorter than a trigram has nothing to narrow a scan with, so it only
+     * matches word prefixes ("ri" finds "Rings" but not "Spring").
+     */
+    public BitSet search(String query) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.equals(lastQuery)) return lastResult;
+
+        BitSet result = q.length() < 3 ? new BitSet() : scan(q);
+        List<String> queryTokens = Tokenizer.tokens(q);
+        if (!queryTokens.isEmpty()) result.or(tokens.matchPrefixes(queryTokens));
+
+        lastQuery = q;
+        lastResult = result;
+        return result;
+    }
+
+    /**
+     * Typo-tolerant search: every query word must be within a few edits of the
+     * start of some title or author word (none for 1-2 letter words, one up to
+     * five letters, two beyond). Hits are ranked by how closely and in which field
+     * each word matched, then by rating weighted by the number of ratings.
+     */
+    public Ranking fuzzy(String query) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        List<String> queryTokens = Tokenizer.tokens(q);
+        if (queryTokens.isEmpty()) return new Ranking(new BitSet(), new int[0]);
+
+        BitSet ids = null;
+        for (String token : queryTokens) {
+            BitSet hits = tokens.matchFuzzy(token, Levenshtein.maxDistance(token));
+            if (ids == null) ids = hits;
+            else ids.and(hits);
+            if (ids.isEmpty()) return new Ranking(ids, new int[0]);
+        }
+
+        int n = ids.cardinality();
+        int[] order = new int[n];
+        long[] keys = new long[n];
+
+        // most popular first, ties in id order
+        int k = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1), k++) {
+            Book b = byId.get(id);
+            order[k] = id;
+            keys[k] = RankKeys.descending(b == null ? 0 : b.getRating() * Math.log1p(b.getNumRated()), k);
+        }
+        Arrays.sort(keys);
+
+        // then by relevance with the popularity rank as tie-break; only the most popular are scored
+        int[] byPopularity = new int[n];
+        for (int rank = 0; rank < n; rank++) {
+            int id = order[RankKeys.value(keys[rank])];
+            Book b = byId.get(id);
+            byPopularity[rank] = id;
+            keys[rank] = RankKeys.descending(
+                    rank < MAX_SCORED && b != null ? relevance(b, queryTokens) : -1, rank);
+        }
+        Arrays.sort(keys);
+
+        int[] ranked = new int[n];
+        for (int i = 0; i < n; i++) ranked[i] = byPopularity[RankKeys.value(keys[i])];
+        return new Ranking(ids, ranked);
+    }
+
+    // Sum over query words of the best weight / (1 + edits) among the book's words
+    private static double relevance(Book b, List<String> queryTokens) {
+        List<String> title = Tokenizer.tokens(b.getTitle());
+        List<String> author = Tokenizer.tokens(b.getAuthor());
+
+        double total = 0;
+        for (String q : queryTokens) {
+            int max = Levenshtein.maxDistance(q);
+            total += Math.max(best(title, q, max, TITLE_WEIGHT), best(author, q, max, AUTHOR_WEIGHT));
+        }
+        return total;
+    }
+
+    private static double best(List<String> words, String q, int max, double weight) {
+        int d = max + 1;
+        for (String w : words) {
+            d = Math.min(d, Levenshtein.prefixDistance(w, q, max));
+            if (d == 0) break;
+        }
+        return d > max ? 0 : weight / (1 + d);
+    }
+
+    // Titles, authors, genres and sub-genres starting with prefix, most-rated first
+    public List<String> suggest(String prefix, int limit) {
+        return suggestions.top(prefix, limit);
+    }
+
+    // Substring matches among the trigram candidates; q has at least three characters
+    private BitSet scan(String q) {
+        BitSet result = new BitSet();
+        IntList candidates = trigrams.candidates(q);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Book b = byId.get(candidates.get(i));
+            if (b != null && b.getSearchText().contains(q)) result.set(b.getId());
+        }
+        return result;
+    }
+
+    // Sizes and approximate heap use of the index structures
+    public String memoryReport() {
+        return String.format(Locale.ROOT,
+                "Search index: %d books, %d tokens (~%.1f MB), %d trigrams / %d postings (~%.1f MB), %d suggestions",
+                byId.size(),
+                tokens.tokenCount(), tokens.bytes() / 1048576.0,
+                trigrams.trigramCount(), trigrams.postingCount(), trigrams.bytes() / 1048576.0,
+                suggestions.size());
+    }
+
+    private void add(Book b) {
+        byId.put(b.getId(), b);
+        tokens.add(b.getId(), b.getSearchText());
+        trigrams.add(b.getId(), b.getSearchText());
+        forEachLabel(b, label -> suggestions.add(label, b.getNumRated()));
+    }
+
+    private void remove(Book b) {
+        byId.remove(b.getId(), b);
+        tokens.remove(b.getId(), b.getSearchText());
+        trigrams.remove(b.getId(), b.getSearchText());
+        forEachLabel(b, label -> suggestions.remove(label, b.getNumRated()));
+    }
+
+    /** Fuzzy hits with their relevance order, for the table's filter and sort. */
+    public static final class Ranking {
+        private final BitSet ids;
+        private final Map<Integer, Integer> rank;
+
+        Ranking(BitSet ids, int[] ranked) {
+            this.ids = ids;
+            this.rank = new HashMap<>(ranked.length * 2);
+            for (int i = 0; i < ranked.length; i++) rank.put(ranked[i], i);
+        }
+
+        // Matching book ids; shared, not to be modified
+        public BitSet ids() {
+            return ids;
+        }
+
+        public int size() {
+            return rank.size();
+        }
+
+        // Most relevant first; books outside the ranking go last
+        public Comparator<Book> order() {
+            return Comparator.comparingInt(b -> rank.getOrDefault(b.getId(), Integer.MAX_VALUE));
+        }
+    }
+
+    // Stored (not dictionary-resolved) names, so a removal undoes exactly what the add did
+    private static void forEachLabel(Book b, Consumer<String> action) {
+        action.accept(b.getTitle());
+        action.accept(b.getAuthor());
+        action.accept(b.getMainGenre());
+        action.accept(b.getSubGenre());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Sorted, duplicate-free list of ints backed by a plain array; used as a posting list
+final class IntList {
+
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(4);
+    }
+
+    IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int get(int i) {
+        return values[i];
+    }
+
+    // Ids mostly arrive in increasing order, so the common case is an append
+    void add(int value) {
+        if (size > 0 && values[size - 1] >= value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) return;
+            insertAt(-pos - 1, value);
+            return;
+        }
+        if (size == values.length) grow();
+        values[size++] = value;
+    }
+
+    void remove(int value) {
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos < 0) return;
+        System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    void setBits(BitSet bits) {
+        for (int i = 0; i < size; i++) bits.set(values[i]);
+    }
+
+    // Allocated bytes, for memory reports
+    long bytes() {
+        return 16L + 4L * values.length;
+    }
+
+    private void insertAt(int pos, int value) {
+        if (size == values.length) grow();
+        System.arraycopy(values, pos, values, pos + 1, size - pos);
+        values[pos] = value;
+        size++;
+    }
+
+    private void grow() {
+        values = Arrays.copyOf(values, values.length + (values.length >> 1) + 1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import java.util.*;
+
+/**
+ * Token → sorted posting list of ids.
+ *
+ * Tokens are kept in a sorted map, so all tokens starting with a prefix form one
+ * contiguous sub-map. A multi-token query is the intersection of the per-token
+ * prefix unions. The same sorted keys drive the bounded edit-distance walk
+ * used for fuzzy matching.
+ */
+final class InvertedIndex {
+
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+
+    // Sorted key snapshot for the fuzzy walk; dropped whenever a token appears or disappears
+    private String[] words;
+
+    void add(int id, String text) {
+        for (String token : Tokenizer.tokens(text)) {
+            postings.computeIfAbsent(token, k -> {
+                words = null;
+                return new IntList();
+            }).add(id);
+        }
+    }
+
+    void remove(int id, String text) {
+        for (String token : Tokenizer.tokens(text)) {
+            IntList list = postings.get(token);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(token);
+                words = null;
+            }
+        }
+    }
+
+    // Ids having, for every query token, some token that starts with it
+    BitSet matchPrefixes(List<String> queryTokens) {
+        BitSet result = null;
+
+        // longest tokens first: usually the fewest postings
+        List<String> ordered = new ArrayList<>(queryTokens);
+        ordered.sort(Comparator.comparingInt(String::length).reversed());
+
+        for (String token : ordered) {
+            BitSet hits = new BitSet();
+            for (IntList list : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                list.setBits(hits);
+            }
+
+            if (result == null) result = hits;
+            else result.and(hits);
+
+            if (result.isEmpty()) break;
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    // Ids having a token whose prefix is within max edits of the query token
+    BitSet matchFuzzy(String queryToken, int max) {
+        if (words == null) words = postings.keySet().toArray(new String[0]);
+        String[] snapshot = words;
+
+        BitSet hits = new BitSet();
+        Levenshtein.walk(snapshot, queryToken, max,
+                (index, distance) -> postings.get(snapshot[index]).setBits(hits));
+        return hits;
+    }
+
+    int tokenCount() {
+        return postings.size();
+    }
+
+    // Approximate heap use of the map and the posting arrays
+    long bytes() {
+        long total = 0;
+        for (Map.Entry<String, IntList> e : postings.entrySet()) {
+            total += 40 + 40 + 2L * e.getKey().length() + e.getValue().bytes();
+        }
+        return total;
+    }
+}
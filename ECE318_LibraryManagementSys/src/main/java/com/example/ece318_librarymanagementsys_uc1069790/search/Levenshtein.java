@@ -0,0 +1,142 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import java.util.Arrays;
+
+/**
+ * Bounded edit distance for typo-tolerant matching.
+ *
+ * Distances are "prefix distances": the smallest edit distance between the query
+ * and any prefix of the word, so a partly typed word still matches. Walking a
+ * sorted word array reuses the DP rows of the prefix shared with the previous
+ * word, as a trie would, and jumps over every word under a prefix whose row
+ * already exceeds the bound.
+ */
+final class Levenshtein {
+
+    private Levenshtein() {}
+
+    interface Match {
+        void accept(int index, int distance);
+    }
+
+    // Typos allowed for a query word of this length
+    static int maxDistance(String queryToken) {
+        int n = queryToken.length();
+        return n <= 2 ? 0 : n <= 5 ? 1 : 2;
+    }
+
+    // Prefix distance, or max + 1 when it is larger than max
+    static int prefixDistance(String word, String query, int max) {
+        int m = query.length();
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+
+        int best = prev[m];
+        for (int i = 1; i <= word.length() && best > 0; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = word.charAt(i - 1) == query.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            best = Math.min(best, cur[m]);
+            if (rowMin > max) break;
+
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(best, max + 1);
+    }
+
+    // Calls match(index, distance) for every word of the sorted array within max of the query
+    static void walk(String[] words, String query, int max, Match match) {
+        int m = query.length();
+        int[][] rows = new int[16][];
+        rows[0] = new int[m + 1];
+        for (int j = 0; j <= m; j++) rows[0][j] = j;
+
+        // best[i] = smallest rows[k][m] for k ≤ i
+        int[] best = new int[16];
+        best[0] = m;
+
+        String prev = "";
+        int valid = 0; // rows[0..valid] belong to prev's prefix
+
+        int w = 0;
+        while (w < words.length) {
+            String word = words[w];
+            int depth = Math.min(commonPrefix(prev, word), valid);
+            int skip = -1;
+
+            for (int i = depth + 1; i <= word.length(); i++) {
+                if (i >= rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                    best = Arrays.copyOf(best, best.length * 2);
+                }
+                if (rows[i] == null) rows[i] = new int[m + 1];
+
+                int[] up = rows[i - 1], cur = rows[i];
+                char c = word.charAt(i - 1);
+                cur[0] = i;
+                int rowMin = i;
+                for (int j = 1; j <= m; j++) {
+                    int cost = c == query.charAt(j - 1) ? 0 : 1;
+                    cur[j] = Math.min(Math.min(up[j] + 1, cur[j - 1] + 1), up[j - 1] + cost);
+                    rowMin = Math.min(rowMin, cur[j]);
+                }
+                best[i] = Math.min(best[i - 1], cur[m]);
+                valid = i;
+
+                if (rowMin > max) {
+                    // deeper rows only grow, so every word under this prefix ends at best[i]
+                    skip = i;
+                    break;
+                }
+            }
+
+            prev = word;
+            if (skip < 0) {
+                if (best[word.length()] <= max) match.accept(w, best[word.length()]);
+                w++;
+            } else {
+                int next = endOfPrefix(words, w, word, skip);
+                int d = best[skip];
+                if (d <= max) {
+                    for (int k = w; k < next; k++) match.accept(k, d);
+                }
+                w = next;
+            }
+        }
+    }
+
+    // First index after from whose word does not start with the first len chars of word
+    private static int endOfPrefix(String[] words, int from, String word, int len) {
+        // gallop, then binary search: most skipped ranges are short
+        int lo = from + 1, step = 1;
+        while (lo < words.length && sharesPrefix(words[lo], word, len)) {
+            lo = from + (step <<= 1);
+        }
+        int hi = Math.min(lo, words.length);
+        lo = from + (step >> 1) + 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sharesPrefix(words[mid], word, len)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static boolean sharesPrefix(String a, String word, int len) {
+        return a.length() >= len && a.regionMatches(0, word, 0, len);
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Groups books whose title and author are nearly the same, e.g. a title with
+ * "[Paperback] Hawking, Stephen" appended, or a different casing or punctuation.
+ *
+ * Each book becomes the set of its title and author words. MinHash signatures
+ * of those sets are cut into bands, and books that agree on a whole band land in
+ * the same bucket (locality-sensitive hashing): one sort of packed (band key,
+ * book) longs per band instead of comparing all pairs. Only books sharing a
+ * bucket have their exact word-set similarity checked, and matches are joined
+ * with union-find. Volumes of a series are kept apart: two titles carrying
+ * different numbers ("No. 153", "No. 155"), or whose leading words appear
+ * nowhere in the other ("Flawless: …", "Heartless: …"), never match. Stateless;
+ * safe to run off the FX thread on a snapshot.
+ */
+public final class NearDuplicates {
+
+    // 12 bands of 3 rows (bandKey is written for 3): a pair at similarity 0.7 shares
+    // some bucket with probability 0.99, at 0.8 with 0.9998
+    private static final int BANDS = 12;
+    private static final int ROWS = 3;
+
+    /** Word-set (Jaccard) similarity from which two books count as the same. */
+    public static final double THRESHOLD = 0.7;
+
+    private static final int[] SEEDS = new int[BANDS * ROWS];
+
+    static {
+        long x = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SEEDS.length; i++) {
+            x += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = (int) mix64(x);
+        }
+    }
+
+    /** Books judged to be one listing, the most rated first. */
+    public static final class Cluster {
+        public final List<Book> books;
+
+        private Cluster(List<Book> books) {
+            this.books = books;
+        }
+
+        // Suggested copy to keep
+        public Book keep() {
+            return books.get(0);
+        }
+    }
+
+    private NearDuplicates() {}
+
+    /** Clusters of two or more near-identical books, largest first. */
+    public static List<Cluster> find(List<Book> books) {
+        int n = books.size();
+        if (n < 2) return List.of();
+
+        Words[] words = new Words[n];
+        IntStream.range(0, n).parallel().forEach(i -> words[i] = new Words(books.get(i)));
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+
+        int indexBits = 32 - Integer.numberOfLeadingZeros(n - 1);
+        long indexMask = (1L << indexBits) - 1;
+        long[] packed = new long[n];
+
+        for (int band = 0; band < BANDS; band++) {
+            int first = band * ROWS;
+            IntStream.range(0, n).parallel().forEach(i ->
+                    packed[i] = (bandKey(words[i].hashes, i, first) << indexBits) | i);
+            Arrays.parallelSort(packed);
+
+            // each run of equal keys is a bucket; members are checked against its first and previous book
+            int start = 0;
+            for (int k = 1; k <= n; k++) {
+                if (k < n && (packed[k] >>> indexBits) == (packed[start] >>> indexBits)) {
+                    int head = (int) (packed[start] & indexMask);
+                    int cur = (int) (packed[k] & indexMask);
+                    int prev = (int) (packed[k - 1] & indexMask);
+                    joinIfSimilar(parent, words, head, cur);
+                    if (prev != head) joinIfSimilar(parent, words, prev, cur);
+                } else {
+                    start = k;
+                }
+            }
+        }
+
+        int[] size = new int[n];
+        for (int i = 0; i < n; i++) size[find(parent, i)]++;
+
+        Map<Integer, List<Book>> groups = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (size[root] > 1) groups.computeIfAbsent(root, r -> new ArrayList<>()).add(books.get(i));
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        Comparator<Book> mostRated = Comparator.comparingInt(Book::getNumRated).reversed()
+                .thenComparingInt(Book::getId);
+        for (List<Book> group : groups.values()) {
+            group.sort(mostRated);
+            clusters.add(new Cluster(group));
+        }
+        clusters.sort(Comparator.comparingInt((Cluster c) -> c.books.size()).reversed()
+                .thenComparing(c -> c.keep().getId()));
+        return clusters;
+    }
+
+    /** True when the two books would be put in one cluster, had LSH paired them. */
+    public static boolean similar(Book a, Book b) {
+        return similar(new Words(a), new Words(b));
+    }
+
+    /**
+     * Title and author words of one book, each as a 32-bit hash of its lower-case
+     * letters and digits, read straight from the chars without building Strings.
+     */
+    private static final class Words {
+        final int[] hashes;   // sorted, distinct
+        final int[] numbers;  // sorted, distinct hashes of the all-digit words; empty when none
+        final int lead;       // first word of the title, or of the author when the title has none
+
+        Words(Book b) {
+            Scan scan = new Scan();
+            scan.add(b.getTitle());
+            scan.add(b.getAuthor());
+
+            lead = scan.count == 0 ? 0 : scan.words[0];
+            hashes = distinct(scan.words, scan.count);
+            numbers = distinct(scan.numbers, scan.numberCount);
+        }
+
+        private static int[] distinct(int[] values, int n) {
+            if (n == 0) return EMPTY;
+            int[] sorted = Arrays.copyOf(values, n);
+            Arrays.sort(sorted);
+            int d = 1;
+            for (int i = 1; i < n; i++) {
+                if (sorted[d - 1] != sorted[i]) sorted[d++] = sorted[i];
+            }
+            return d == n ? sorted : Arrays.copyOf(sorted, d);
+        }
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    // Word hashes of the texts added so far, in order
+    private static final class Scan {
+        int[] words = new int[16];
+        int count = 0;
+        int[] numbers = new int[4];
+        int numberCount = 0;
+
+        void add(String text) {
+            if (text == null) return;
+
+            int h = 0;
+            boolean inWord = false, digitsOnly = true;
+            for (int i = 0, n = text.length(); i <= n; i++) {
+                char c = i < n ? text.charAt(i) : ' ';
+                if (Character.isLetterOrDigit(c)) {
+                    h = 31 * h + Character.toLowerCase(c);
+                    digitsOnly &= c >= '0' && c <= '9';
+                    inWord = true;
+                } else if (inWord) {
+                    int word = mix32(h);
+                    if (count == words.length) words = Arrays.copyOf(words, count * 2);
+                    words[count++] = word;
+                    if (digitsOnly) {
+                        if (numberCount == numbers.length) numbers = Arrays.copyOf(numbers, numberCount * 2);
+                        numbers[numberCount++] = word;
+                    }
+                    h = 0;
+                    inWord = false;
+                    digitsOnly = true;
+                }
+            }
+        }
+    }
+
+    // ROWS MinHash values folded into one bucket key; a book without words gets its own bucket
+    private static long bandKey(int[] words, int index, int firstSeed) {
+        if (words.length == 0) return mix64(~(long) index);
+
+        // one pass over the words for all rows of the band; xor-then-multiply permutes the
+        // already mixed word hashes well enough for MinHash
+        int min0 = Integer.MAX_VALUE, min1 = Integer.MAX_VALUE, min2 = Integer.MAX_VALUE;
+        int s0 = SEEDS[firstSeed], s1 = SEEDS[firstSeed + 1], s2 = SEEDS[firstSeed + 2];
+        for (int w : words) {
+            min0 = Math.min(min0, (w ^ s0) * 0x9E3779B1);
+            min1 = Math.min(min1, (w ^ s1) * 0x85EBCA77);
+            min2 = Math.min(min2, (w ^ s2) * 0xC2B2AE3D);
+        }
+        return mix64(((long) min0 << 32 | (min1 & 0xFFFFFFFFL)) ^ mix64(min2 + (long) firstSeed));
+    }
+
+    private static void joinIfSimilar(int[] parent, Words[] words, int a, int b) {
+        int ra = find(parent, a), rb = find(parent, b);
+        if (ra == rb || !similar(words[a], words[b])) return;
+        parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+
+    private static boolean similar(Words a, Words b) {
+        if (jaccard(a.hashes, b.hashes) < THRESHOLD) return false;
+        // each side has a number the other lacks: different volumes or issues
+        if (!containsAll(a.numbers, b.numbers) && !containsAll(b.numbers, a.numbers)) return false;
+        return Arrays.binarySearch(b.hashes, a.lead) >= 0 || Arrays.binarySearch(a.hashes, b.lead) >= 0;
+    }
+
+    // Both sorted
+    private static boolean containsAll(int[] outer, int[] inner) {
+        for (int v : inner) {
+            if (Arrays.binarySearch(outer, v) < 0) return false;
+        }
+        return true;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Both arrays sorted and distinct
+    private static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) return 0;
+
+        int i = 0, j = 0, common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static int mix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ece318_librarymanagementsys.search;
+
+/**
+ * A score and an int packed into one long, so a ranking sorts as a primitive
+ * long[] instead of boxed ids with a comparator. Scores compare at float
+ * precision; equal ones fall back to the packed value.
+ */
+final class RankKeys {
+
+    private RankKeys() {
+    }
+
+    // Sorts ascending into highest score first, then lowest value
+    static long descending(double score, int value) {
+        int bits = Float.floatToIntBits((float) score);
+        // negative floats flipped so the bits order like the numbers, then inverted
+        int key = ~(bits ^ ((bits >> 31) & 0x7FFFFFFF));
+        return ((long) key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    static int value(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import java.util.*;
+
+/**
+ * Weighted prefix completion over a bounded set of labels.
+ *
+ * The bulk of the entries lives in arrays sorted by key, so all keys with a given
+ * prefix form one index range. A max-segment tree over the weights returns that
+ * range's top-k in O(k log n) without touching the rest of it. Changes go to a
+ * small sorted delta map (count 0 = deleted) that overrides the arrays and is
+ * merged back once it grows past a quarter of them. Merging keeps at most
+ * maxEntries labels, dropping the lightest ones.
+ */
+final class SuggestionEngine {
+
+    private static final int MIN_DELTA = 4096;
+
+    private final int maxEntries;
+
+    // Compacted entries, sorted by key
+    private String[] keys = new String[0];
+    private String[] labels = new String[0];
+    private long[] weights = new long[0];
+    private int[] counts = new int[0];
+
+    // tree[node] = index of the heaviest entry below node, -1 if none; leaves start at leafBase
+    private int[] tree = {-1, -1};
+    private int leafBase = 1;
+
+    private final TreeMap<String, Entry> delta = new TreeMap<>();
+
+    private static final class Entry {
+        String label;
+        long weight;
+        int count;
+    }
+
+    private static final class Hit {
+        final String label;
+        final long weight;
+
+        Hit(String label, long weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    SuggestionEngine(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    void add(String label, long weight) {
+        change(label, weight, 1);
+    }
+
+    void remove(String label, long weight) {
+        change(label, -weight, -1);
+    }
+
+    // Labels starting with prefix (case-insensitive), heaviest first
+    List<String> top(String prefix, int k) {
+        String from = prefix.trim().toLowerCase(Locale.ROOT);
+        if (from.isEmpty() || k <= 0) return List.of();
+        String to = from + Character.MAX_VALUE;
+
+        // candidates from both sources, lightest on top so the best k are kept
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingLong(h -> h.weight));
+
+        for (Entry e : delta.subMap(from, true, to, false).values()) {
+            if (e.count > 0) offer(best, k, e.label, e.weight);
+        }
+
+        int lo = lowerBound(from);
+        int hi = lowerBound(to);
+        if (lo < hi) topFromArrays(lo, hi, k, best);
+
+        List<Hit> sorted = new ArrayList<>(best);
+        sorted.sort((a, b) -> Long.compare(b.weight, a.weight));
+
+        List<String> out = new ArrayList<>(sorted.size());
+        for (Hit h : sorted) out.add(h.label);
+        return out;
+    }
+
+    int size() {
+        return keys.length + delta.size();
+    }
+
+    // Pops array entries heaviest first; ones overridden by the delta are skipped
+    private void topFromArrays(int lo, int hi, int k, PriorityQueue<Hit> best) {
+        PriorityQueue<Integer> nodes = new PriorityQueue<>(
+                (a, b) -> Long.compare(weights[tree[b]], weights[tree[a]]));
+
+        for (int l = lo + leafBase, r = hi + leafBase; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) nodes.add(l++);
+            if ((r & 1) == 1) nodes.add(--r);
+        }
+
+        int found = 0;
+        while (!nodes.isEmpty() && found < k) {
+            int node = nodes.poll();
+            if (node >= leafBase) {
+                int i = node - leafBase;
+                // everything still queued is lighter, so a full heap cannot improve
+                if (best.size() == k && weights[i] <= best.peek().weight) return;
+                if (!delta.containsKey(keys[i])) {
+                    offer(best, k, labels[i], weights[i]);
+                    found++;
+                }
+                continue;
+            }
+            if (tree[2 * node] >= 0) nodes.add(2 * node);
+            if (tree[2 * node + 1] >= 0) nodes.add(2 * node + 1);
+        }
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int k, String label, long weight) {
+        if (best.size() < k) {
+            best.add(new Hit(label, weight));
+        } else if (weight > best.peek().weight) {
+            best.poll();
+            best.add(new Hit(label, weight));
+        }
+    }
+
+    private void change(String label, long weightDelta, int countDelta) {
+        if (label == null || label.isBlank()) return;
+        String key = label.trim().toLowerCase(Locale.ROOT);
+
+        Entry e = delta.get(key);
+        if (e == null) {
+            e = new Entry();
+            int pos = Arrays.binarySearch(keys, key);
+            if (pos >= 0) {
+                e.label = labels[pos];
+                e.weight = weights[pos];
+                e.count = counts[pos];
+            } else {
+                e.label = label.trim();
+            }
+            delta.put(key, e);
+        }
+
+        e.count += countDelta;
+        e.weight += weightDelta;
+        if (e.count <= 0) {
+            e.count = 0;
+            e.weight = 0;
+        }
+
+        if (delta.size() > Math.max(MIN_DELTA, keys.length / 4)) compact();
+    }
+
+    // Merges the delta into the arrays, then trims to maxEntries and rebuilds the tree
+    private void compact() {
+        int n = keys.length;
+        List<String> newKeys = new ArrayList<>(n + delta.size());
+        List<Entry> newEntries = new ArrayList<>(n + delta.size());
+
+        Iterator<Map.Entry<String, Entry>> it = delta.entrySet().iterator();
+        Map.Entry<String, Entry> d = it.hasNext() ? it.next() : null;
+        int i = 0;
+
+        while (i < n || d != null) {
+            int cmp = d == null ? -1 : i == n ? 1 : keys[i].compareTo(d.getKey());
+            if (cmp < 0) {
+                Entry e = new Entry();
+                e.label = labels[i];
+                e.weight = weights[i];
+                e.count = counts[i];
+                newKeys.add(keys[i]);
+                newEntries.add(e);
+                i++;
+            } else {
+                if (cmp == 0) i++;                      // the delta overrides
+                if (d.getValue().count > 0) {
+                    newKeys.add(d.getKey());
+                    newEntries.add(d.getValue());
+                }
+                d = it.hasNext() ? it.next() : null;
+            }
+        }
+        delta.clear();
+
+        if (newKeys.size() > maxEntries) {
+            trim(newKeys, newEntries);
+        }
+
+        int size = newKeys.size();
+        keys = newKeys.toArray(new String[0]);
+        labels = new String[size];
+        weights = new long[size];
+        counts = new int[size];
+        for (int j = 0; j < size; j++) {
+            Entry e = newEntries.get(j);
+            labels[j] = e.label;
+            weights[j] = e.weight;
+            counts[j] = e.count;
+        }
+        buildTree();
+    }
+
+    // Keeps the maxEntries heaviest entries, still in key order
+    private void trim(List<String> keyList, List<Entry> entryList) {
+        Integer[] order = new Integer[keyList.size()];
+        for (int j = 0; j < order.length; j++) order[j] = j;
+        Arrays.sort(order, (a, b) -> Long.compare(entryList.get(b).weight, entryList.get(a).weight));
+
+        boolean[] keep = new boolean[order.length];
+        for (int j = 0; j < maxEntries; j++) keep[order[j]] = true;
+
+        int w = 0;
+        for (int j = 0; j < order.length; j++) {
+            if (!keep[j]) continue;
+            keyList.set(w, keyList.get(j));
+            entryList.set(w, entryList.get(j));
+            w++;
+        }
+        keyList.subList(w, keyList.size()).clear();
+        entryList.subList(w, entryList.size()).clear();
+    }
+
+    private void buildTree() {
+        leafBase = 1;
+        while (leafBase < keys.length) leafBase <<= 1;
+
+        tree = new int[2 * leafBase];
+        Arrays.fill(tree, -1);
+        for (int j = 0; j < keys.length; j++) tree[leafBase + j] = j;
+
+        for (int node = leafBase - 1; node >= 1; node--) {
+            int a = tree[2 * node], b = tree[2 * node + 1];
+            tree[node] = a < 0 ? b : b < 0 ? a : weights[b] > weights[a] ? b : a;
+        }
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Splits text into lower-case runs of letters/digits, without regex or intermediate arrays
+final class Tokenizer {
+
+    private Tokenizer() {}
+
+    static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+
+        int start = -1;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            boolean word = i < n && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                out.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import java.util.*;
+
+/**
+ * Trigram → sorted posting list of ids, for substring queries.
+ *
+ * Every substring of length ≥ 3 contains all of its own trigrams, so the ids whose
+ * text contains the query are a subset of the intersection of the query's trigram
+ * postings. Callers verify the (small) candidate set with a real contains check.
+ * A trigram is packed into one long (three 16-bit chars).
+ */
+final class TrigramIndex {
+
+    private final HashMap<Long, IntList> postings = new HashMap<>();
+
+    void add(int id, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            postings.computeIfAbsent(key(text, i), k -> new IntList()).add(id);
+        }
+    }
+
+    void remove(int id, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Long k = key(text, i);
+            IntList list = postings.get(k);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.isEmpty()) postings.remove(k);
+        }
+    }
+
+    // Candidate ids for a substring query, or null when the query is shorter than a trigram
+    IntList candidates(String query) {
+        if (query.length() < 3) return null;
+
+        List<IntList> lists = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            Long k = key(query, i);
+            if (!seen.add(k)) continue;
+
+            IntList list = postings.get(k);
+            if (list == null) return new IntList();
+            lists.add(list);
+        }
+
+        // smallest list first keeps every intermediate result small
+        lists.sort(Comparator.comparingInt(IntList::size));
+
+        IntList result = lists.get(0);
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    int trigramCount() {
+        return postings.size();
+    }
+
+    long postingCount() {
+        long total = 0;
+        for (IntList list : postings.values()) total += list.size();
+        return total;
+    }
+
+    // Approximate heap use: map entry + boxed key + posting array per trigram
+    long bytes() {
+        long total = 0;
+        for (IntList list : postings.values()) total += 48 + 24 + list.bytes();
+        return total;
+    }
+
+    // Walks the shorter list and binary-searches the longer one
+    private static IntList intersect(IntList small, IntList large) {
+        IntList out = new IntList(small.size());
+        for (int i = 0; i < small.size(); i++) {
+            int v = small.get(i);
+            if (large.contains(v)) out.add(v);
+        }
+        return out;
+    }
+
+    private static long key(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
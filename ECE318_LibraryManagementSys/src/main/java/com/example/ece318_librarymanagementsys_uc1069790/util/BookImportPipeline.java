@@ -0,0 +1,320 @@
+package com.example.ece318_librarymanagementsys.util;
+
+import com.example.ece318_librarymanagementsys.database.BookDAO;
+import com.example.ece318_librarymanagementsys.database.DatabaseConnection;
+import com.example.ece318_librarymanagementsys.model.Book;
+
+import java.io.CharArrayReader;
+import java.io.File;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel import for large book dumps.
+ *
+ * The file is memory-mapped and cut into chunks at record boundaries that lie
+ * outside quoted fields. Parser threads turn chunks into batches of resolved books
+ * and hand them to a bounded queue, which is drained by writer threads that each
+ * hold their own pooled connection. Chunks in flight and queued batches are both
+ * capped, so memory use does not grow with the file size. Writers commit only
+ * after all of them are done; a failure or cancel before that rolls every writer
+ * back. The commits themselves are separate, so when one fails after another
+ * succeeded, the rows already committed are deleted again by their ids.
+ */
+public class BookImportPipeline {
+
+    private static final long CHUNK_BYTES = 8L * 1024 * 1024;
+    private static final long SCAN_WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final int BATCH_SIZE = 1000;
+    private static final long POLL_MS = 100;
+
+    private static final List<Book> END_OF_INPUT = new ArrayList<>();
+
+    private final BookDAO bookDAO;
+    private final CSVLoader.BookResolver resolver;
+    private final int parserThreads;
+    private final int writerThreads;
+
+    public BookImportPipeline(BookDAO bookDAO) {
+        this(bookDAO, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 4);
+    }
+
+    public BookImportPipeline(BookDAO bookDAO, int parserThreads, int writerThreads) {
+        this.bookDAO = bookDAO;
+        this.resolver = new CSVLoader.BookResolver();
+        this.parserThreads = parserThreads;
+        this.writerThreads = writerThreads;
+    }
+
+    public BookDAO.ImportResult run(File file) throws Exception {
+        return run(file, new ImportProgress(file.length()));
+    }
+
+    /**
+     * Imports the file as one unit: writers keep their transactions open until every
+     * writer has drained, then all commit, or all roll back when any stage failed or
+     * the import was cancelled through {@code progress}. A commit that fails after
+     * others went through is compensated by deleting the committed rows.
+     */
+    public BookDAO.ImportResult run(File file, ImportProgress progress) throws Exception {
+        Run run = new Run(parserThreads * 2, writerThreads * 2, writerThreads, progress);
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, daemon("csv-parser"));
+        ExecutorService writers = Executors.newFixedThreadPool(writerThreads, daemon("csv-writer"));
+
+        BookDAO.ImportResult total = new BookDAO.ImportResult(0, 0, 0, 0);
+        try {
+            List<Future<BookDAO.ImportResult>> writerTasks = new ArrayList<>();
+            for (int i = 0; i < writerThreads; i++) {
+                writerTasks.add(writers.submit(() -> drain(run)));
+            }
+
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                List<Future<?>> parseTasks = new ArrayList<>();
+                split(channel, (start, end, firstLine) -> {
+                    acquire(run);
+                    parseTasks.add(parsers.submit(() -> parse(run, channel, start, end, firstLine)));
+                });
+                for (Future<?> f : parseTasks) f.get();
+                progress.parsingDone();
+            } catch (Exception e) {
+                // the writers see it and roll back
+                run.failure.compareAndSet(null, e);
+            } finally {
+                for (int i = 0; i < writerThreads; i++) offer(run, END_OF_INPUT);
+            }
+
+            for (Future<BookDAO.ImportResult> f : writerTasks) total = total.plus(f.get());
+
+        } catch (ExecutionException e) {
+            throw run.failure.get() instanceof Exception ex ? ex : e;
+        } finally {
+            parsers.shutdownNow();
+            writers.shutdownNow();
+        }
+
+        // any recorded failure means the writers rolled back, Errors included;
+        // rows a writer committed before another one's commit failed are taken back
+        Throwable failure = run.failure.get();
+        if (failure != null && !run.committed.isEmpty()) {
+            try {
+                bookDAO.deleteIdRanges(run.committed);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure instanceof Exception ex) throw ex;
+        if (failure != null) throw new ExecutionException(failure);
+
+        // the books are committed by now; a count left stale is fixed by the next recount
+        try {
+            bookDAO.recountSubGenreBooks();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return total;
+    }
+
+    // Shared state of one import
+    private static final class Run {
+        final BlockingQueue<List<Book>> queue;
+        final Semaphore chunksInFlight;
+        final CountDownLatch drained;
+        final ImportProgress progress;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Inclusive id ranges of the writers that committed
+        final List<int[]> committed = Collections.synchronizedList(new ArrayList<>());
+
+        Run(int maxChunksInFlight, int maxQueuedBatches, int writers, ImportProgress progress) {
+            this.chunksInFlight = new Semaphore(maxChunksInFlight);
+            this.queue = new ArrayBlockingQueue<>(maxQueuedBatches);
+            this.drained = new CountDownLatch(writers);
+            this.progress = progress;
+        }
+    }
+
+    private interface ChunkSink {
+        void accept(long start, long end, long firstLine) throws Exception;
+    }
+
+    // ─── Splitting ───────────────────────────────
+
+    // Sequential byte scan tracking quote state; emits ~CHUNK_BYTES chunks that start after the header
+    private void split(FileChannel channel, ChunkSink sink) throws Exception {
+        long size = channel.size();
+        boolean inQuotes = false;
+        long line = 1;
+        long chunkStart = -1;
+        long chunkLine = 0;
+
+        for (long windowStart = 0; windowStart < size; windowStart += SCAN_WINDOW_BYTES) {
+            long windowSize = Math.min(SCAN_WINDOW_BYTES, size - windowStart);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+
+            for (int i = 0; i < windowSize; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n') {
+                    line++;
+                    if (inQuotes) continue;
+
+                    long end = windowStart + i + 1;
+                    if (chunkStart < 0) {                       // end of header
+                        chunkStart = end;
+                        chunkLine = line;
+                    } else if (end - chunkStart >= CHUNK_BYTES) {
+                        sink.accept(chunkStart, end, chunkLine);
+                        chunkStart = end;
+                        chunkLine = line;
+                    }
+                }
+            }
+        }
+
+        if (chunkStart >= 0 && chunkStart < size) {
+            sink.accept(chunkStart, size, chunkLine);
+        }
+    }
+
+    // ─── Parsing ─────────────────────────────────
+
+    private void parse(Run run, FileChannel channel, long start, long end, long firstLine) {
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+
+            List<Book> batch = new ArrayList<>(BATCH_SIZE);
+            CSVReader reader = new CSVReader(new CharArrayReader(
+                    chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()));
+
+            for (CSVReader.Row row : reader) {
+                if (stopped(run)) return;
+
+                Book book = resolver.resolve(row, (int) (firstLine + row.lineNumber() - 1));
+                if (book == null) continue;
+
+                batch.add(book);
+                if (batch.size() == BATCH_SIZE) {
+                    run.progress.parsed(batch.size(), 0);
+                    offer(run, batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            run.progress.parsed(batch.size(), end - start);
+            if (!batch.isEmpty()) offer(run, batch);
+
+        } catch (Throwable t) {
+            run.failure.compareAndSet(null, t);
+        } finally {
+            run.chunksInFlight.release();
+        }
+    }
+
+    // ─── Writing ─────────────────────────────────
+
+    // Returns the counts and id span of what this writer inserted once the whole import is committed
+    private BookDAO.ImportResult drain(Run run) {
+        BookDAO.ImportResult written = new BookDAO.ImportResult(0, 0, 0, 0);
+        List<int[]> ranges = new ArrayList<>();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            while (!stopped(run)) {
+                List<Book> batch = run.queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (batch == null) continue;
+                if (batch == END_OF_INPUT) break;
+
+                BookDAO.ImportResult r = bookDAO.insertChunk(conn, batch);
+                written = written.plus(r);
+                addRange(ranges, r);
+                run.progress.stored(r.inserted, r.skipped);
+            }
+        } catch (Throwable t) {
+            run.failure.compareAndSet(null, t);
+        }
+
+        run.drained.countDown();
+        finish(run, conn, ranges);
+        return written;
+    }
+
+    // One chunk's ids are consecutive; a chunk right after the previous one extends its range
+    private static void addRange(List<int[]> ranges, BookDAO.ImportResult r) {
+        if (r.inserted == 0) return;
+        int[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (last != null && last[1] + 1 == r.firstId) last[1] = r.lastId;
+        else ranges.add(new int[]{r.firstId, r.lastId});
+    }
+
+    // Waits for the other writers, then commits or rolls back with them
+    private static void finish(Run run, Connection conn, List<int[]> ranges) {
+        try {
+            run.drained.await();
+        } catch (InterruptedException e) {
+            run.failure.compareAndSet(null, e);
+        }
+        if (conn == null) return;
+
+        try (conn) {
+            if (run.failure.get() == null) {
+                conn.commit();
+                run.committed.addAll(ranges);
+            } else {
+                conn.rollback();
+                BookDAO.forgetContentHashes();
+            }
+            conn.setAutoCommit(true);
+        } catch (Exception e) {
+            run.failure.compareAndSet(null, e);
+            BookDAO.forgetContentHashes();
+            e.printStackTrace();
+        }
+    }
+
+    // ─── Backpressure ────────────────────────────
+
+    // Blocks while the writers are behind; gives up once any stage has failed
+    private static void offer(Run run, List<Book> batch) throws InterruptedException {
+        while (!run.queue.offer(batch, POLL_MS, TimeUnit.MILLISECONDS)) {
+            if (stopped(run)) return;
+        }
+    }
+
+    private static void acquire(Run run) throws Exception {
+        do {
+            if (stopped(run)) {
+                Throwable t = run.failure.get();
+                throw t instanceof Exception ex ? ex : new ExecutionException(t);
+            }
+        } while (!run.chunksInFlight.tryAcquire(POLL_MS, TimeUnit.MILLISECONDS));
+    }
+
+    // True once any stage failed; a cancel request counts as a failure of the whole import
+    private static boolean stopped(Run run) {
+        if (run.progress.isCancelled()) {
+            run.failure.compareAndSet(null, new CancellationException("Import cancelled"));
+        }
+        return run.failure.get() != null;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.ece318_librarymanagementsys.util;
+
+import com.example.ece318_librarymanagementsys.database.BookDAO;
+import com.example.ece318_librarymanagementsys.database.ContentHash;
+import com.example.ece318_librarymanagementsys.database.DatabaseConnection;
+import com.example.ece318_librarymanagementsys.database.SubGenreDAO;
+import com.example.ece318_librarymanagementsys.model.Book;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * Incremental re-import of an updated books export.
+ *
+ * Each CSV row is keyed by its product's ASIN within its sub-genre (or by the
+ * export's index column when the URL has none) and fingerprinted over all its
+ * fields. Rows are matched by key against the key and fingerprint stored by the
+ * previous sync: unknown keys are inserted, a changed fingerprint becomes an
+ * update, and matching rows are not written at all. Rows stored before syncing
+ * existed are adopted by their content identity (see {@link ContentHash}) on the
+ * first sync. Stored rows the export no longer has are reported, and deleted
+ * only on request. Writes go out as multi-row statements in one transaction.
+ *
+ * Stored rows without a source key that no export row adopts (books added in
+ * the app, or older rows whose content has since changed) are never counted as
+ * missing and never deleted; they are only reported as unlinked.
+ *
+ * Fingerprints are compared with the export last synced, not the current row,
+ * so a book edited in the app keeps the edit until the export changes it.
+ */
+public class BookSync {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /** What one sync changed. */
+    public static final class Diff {
+        public int inserted;
+        public int updated;
+        public int adopted;
+        public int unchanged;
+        public int missing;
+        public int deleted;
+        public int skipped;
+        public int unlinked;
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Inserted: %,d%nUpdated: %,d%nUnchanged: %,d", inserted, updated, unchanged));
+            if (adopted > 0) sb.append(String.format("%nLinked to existing books: %,d", adopted));
+            if (deleted > 0) sb.append(String.format("%nDeleted (missing from file): %,d", deleted));
+            if (missing > 0) sb.append(String.format("%nMissing from file (kept): %,d", missing));
+            if (unlinked > 0) sb.append(String.format("%nNot linked to the file (kept): %,d", unlinked));
+            if (skipped > 0) sb.append(String.format("%nSkipped (invalid or repeated rows): %,d", skipped));
+            return sb.toString();
+        }
+    }
+
+    // Sync state of one stored row
+    private static final class Stored {
+        final int id;
+        final long rowHash;
+
+        Stored(int id, long rowHash) {
+            this.id = id;
+            this.rowHash = rowHash;
+        }
+    }
+
+    private final BookDAO bookDAO;
+    private final CSVLoader.BookResolver resolver = new CSVLoader.BookResolver();
+
+    public BookSync(BookDAO bookDAO) {
+        this.bookDAO = bookDAO;
+    }
+
+    public Diff run(File file, boolean deleteMissing, ImportProgress progress) throws Exception {
+        Diff diff = new Diff();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try {
+                Map<String, Stored> byKey = new HashMap<>();
+                Map<Long, Stored> byIdentity = new HashMap<>();
+                bookDAO.forEachStoredRow(conn, (id, key, rowHash, identity) -> {
+                    if (key != null) byKey.put(key, new Stored(id, rowHash));
+                    else byIdentity.putIfAbsent(identity, new Stored(id, rowHash));
+                });
+
+                compare(conn, file, byKey, byIdentity, diff, progress);
+
+                // keys left over were not in the export
+                List<Integer> missing = new ArrayList<>(byKey.size());
+                for (Stored s : byKey.values()) missing.add(s.id);
+                if (deleteMissing) {
+                    bookDAO.deleteIds(conn, missing);
+                    diff.deleted = missing.size();
+                } else {
+                    diff.missing = missing.size();
+                }
+                // rows without a key that nothing adopted cannot be told apart from books added in the app
+                diff.unlinked = byIdentity.size();
+
+                SubGenreDAO.recountBooks(conn);
+                progress.checkCancelled();
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        BookDAO.forgetContentHashes();
+        return diff;
+    }
+
+    // Streams the export, writing new and changed rows in batches; matched keys leave byKey
+    private void compare(Connection conn, File file, Map<String, Stored> byKey, Map<Long, Stored> byIdentity,
+                         Diff diff, ImportProgress progress) throws Exception {
+        List<BookDAO.SyncedBook> inserts = new ArrayList<>(BATCH_SIZE);
+        List<BookDAO.SyncedBook> updates = new ArrayList<>(BATCH_SIZE);
+        Set<String> seen = new HashSet<>();
+
+        CountingInput counter = new CountingInput(new FileInputStream(file));
+        try (CSVReader reader = new CSVReader(new InputStreamReader(counter, StandardCharsets.UTF_8))) {
+            if (reader.hasNext()) reader.next(); // header
+
+            int rows = 0;
+            long reported = 0;
+            for (CSVReader.Row row : reader) {
+                Book book = resolver.resolve(row, row.lineNumber());
+                String key = book == null ? null : ContentHash.sourceKey(row.get(0), book.getUrl(), book.getSubGenreId());
+                if (key == null || !seen.add(key)) {
+                    diff.skipped++;
+                    continue;
+                }
+
+                long rowHash = ContentHash.ofRow(book);
+                Stored stored = byKey.remove(key);
+                boolean adopt = stored == null;
+                if (adopt) stored = byIdentity.remove(ContentHash.of(book));
+
+                if (stored == null) {
+                    inserts.add(new BookDAO.SyncedBook(book, key, rowHash));
+                    diff.inserted++;
+                } else if (adopt || stored.rowHash != rowHash) {
+                    // adopted rows are rewritten once to store their key and fingerprint
+                    book.setId(stored.id);
+                    updates.add(new BookDAO.SyncedBook(book, key, rowHash));
+                    if (adopt) diff.adopted++;
+                    else diff.updated++;
+                } else {
+                    diff.unchanged++;
+                }
+
+                if (++rows == BATCH_SIZE) {
+                    progress.parsed(rows, counter.count - reported);
+                    reported = counter.count;
+                    flush(conn, inserts, updates, progress, rows);
+                    rows = 0;
+                }
+            }
+
+            progress.parsed(rows, counter.count - reported);
+            progress.parsingDone();
+            flush(conn, inserts, updates, progress, rows);
+        }
+    }
+
+    private void flush(Connection conn, List<BookDAO.SyncedBook> inserts, List<BookDAO.SyncedBook> updates,
+                       ImportProgress progress, int rows) throws Exception {
+        progress.checkCancelled();
+
+        int written = inserts.size() + updates.size();
+        bookDAO.insertSynced(conn, inserts);
+        bookDAO.updateSynced(conn, updates);
+        inserts.clear();
+        updates.clear();
+
+        progress.stored(written, rows - written);
+    }
+
+    // Bytes read so far, for the progress estimate
+    private static final class CountingInput extends FilterInputStream {
+        long count = 0;
+
+        CountingInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
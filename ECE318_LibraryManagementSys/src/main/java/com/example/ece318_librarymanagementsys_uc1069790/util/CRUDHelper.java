@@ -7,10 +7,17 @@ import com.example.ece318_librarymanagementsys.model.*;
 import javafx.scene.control.TableView;
 import javafx.stage.Window;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
 public class CRUDHelper {
 
     private Window owner;
     private final BookFileController dialog;
+    // Applies a confirmed book write (before, after) to the in-memory list and stats on the FX thread
+    private BiConsumer<Book, Book> bookChanged = (before, after) -> {};
 
     private final BookDAO bookDAO;
     private final GenreDAO genreDAO;
@@ -31,19 +38,17 @@ public class CRUDHelper {
         this.owner = owner;
     }
 
+    public void setBookChangeHandler(BiConsumer<Book, Book> handler) {
+        this.bookChanged = handler;
+    }
+
     // BOOK CRUD
+    // FormController.saveBook keeps the sub-genre book counts in step
     public void addBook(Runnable refresh) {
         Book blank = new Book(0, "", "", "", "", "",
                 0, 0, 0, "", 0, 0);
 
-        FormController.open(owner, blank, () -> {
-
-            if (blank.getId() != 0) {
-                subGenreDAO.incrementBookCount(blank.getSubGenreId());
-            }
-
-            refresh.run();
-        });
+        FormController.open(owner, blank, refresh, bookChanged);
     }
 
 
@@ -55,21 +60,7 @@ public class CRUDHelper {
             return;
         }
 
-        // Make a copy to detect changes
-        int oldSub = original.getSubGenreId();
-
-        FormController.open(owner, original, () -> {
-
-            // original now contains updated values
-            int newSub = original.getSubGenreId();
-
-            if (oldSub != newSub) {
-                subGenreDAO.decrementBookCount(oldSub);
-                subGenreDAO.incrementBookCount(newSub);
-            }
-
-            refresh.run();
-        });
+        FormController.open(owner, original, refresh, bookChanged);
     }
 
     public void deleteBook(TableView<Book> table, Runnable refresh) {
@@ -86,11 +77,52 @@ public class CRUDHelper {
                 "Are you sure you want to delete:\n\"" + selected.getTitle() + "\"?"
         )) return;
 
-        subGenreDAO.decrementBookCount(selected.getSubGenreId());
+        AsyncDAO.run(() -> {
+            bookDAO.deleteById(selected.getId());
+            subGenreDAO.decrementBookCount(selected.getSubGenreId());
+        }).whenComplete((v, error) -> {
+            if (error == null) bookChanged.accept(selected, null);
+            finish(error, refresh, "Book deleted successfully!");
+        });
+    }
+
+    /**
+     * Merges near-duplicate copies into the kept book: it absorbs their rating
+     * counts, with the rating averaged over all ratings, and the copies are deleted.
+     * The in-memory list and stats follow on the FX thread once the transaction has committed.
+     * The review dialog is the confirmation.
+     */
+    public CompletableFuture<Void> mergeDuplicates(Book keep, List<Book> duplicates, Runnable refresh) {
+        Book merged = mergedRatings(keep, duplicates);
+        return AsyncDAO.run(() -> {
+            try {
+                bookDAO.mergeDuplicates(merged, duplicates);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to merge duplicates: " + e.getMessage(), e);
+            }
+        }).whenComplete((v, error) -> {
+            if (error == null) {
+                bookChanged.accept(keep, merged);
+                for (Book b : duplicates) bookChanged.accept(b, null);
+            }
+            finish(error, refresh, null);
+        });
+    }
 
-        bookDAO.deleteById(selected.getId());
-        refresh.run();
-        dialog.showInformation("Book deleted successfully!");
+    // Kept book with the rating counts summed and the ratings averaged by count, to one decimal
+    private static Book mergedRatings(Book keep, List<Book> duplicates) {
+        long count = keep.getNumRated();
+        double sum = keep.getRating() * keep.getNumRated();
+        for (Book b : duplicates) {
+            count += b.getNumRated();
+            sum += b.getRating() * b.getNumRated();
+        }
+        double rating = count == 0 ? keep.getRating() : Math.round(sum / count * 10) / 10.0;
+        int numRated = (int) Math.min(Integer.MAX_VALUE, count);
+
+        return new Book(keep.getId(), keep.getTitle(), keep.getAuthor(), keep.getMainGenre(),
+                keep.getSubGenre(), keep.getType(), keep.getPrice(), rating, numRated,
+                keep.getUrl(), keep.getGenreId(), keep.getSubGenreId());
     }
 
     // GENRE CRUD
@@ -120,9 +152,8 @@ public class CRUDHelper {
                 "Delete Genre",
                 "Are you sure you want to delete:\n\"" + selected.getName() + "\"?"
         )) {
-            genreDAO.deleteById(selected.getId());
-            refresh.run();
-            dialog.showInformation("Genre deleted successfully!");
+            AsyncDAO.run(() -> genreDAO.deleteById(selected.getId()))
+                    .whenComplete((v, error) -> finish(error, refresh, "Genre deleted successfully!"));
         }
     }
 
@@ -132,7 +163,7 @@ public class CRUDHelper {
         FormController.open(owner, sg, refresh);
     }
 
-    public void editSubGenre(TableView<SubGenre> table, Runnable refresh) {
+    public void editSubGenre(TableView<? extends SubGenre> table, Runnable refresh) {
 
         SubGenre selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) {
@@ -142,7 +173,7 @@ public class CRUDHelper {
         FormController.open(owner, selected, refresh);
     }
 
-    public void deleteSubGenre(TableView<SubGenre> table, Runnable refresh) {
+    public void deleteSubGenre(TableView<? extends SubGenre> table, Runnable refresh) {
         SubGenre selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) {
             dialog.showInformation("Please select a sub-genre to delete.");
@@ -154,10 +185,21 @@ public class CRUDHelper {
                 "Delete Sub-Genre",
                 "Are you sure you want to delete:\n\"" + selected.getName() + "\"?"
         )) {
-            subGenreDAO.deleteById(selected.getId());
-            genreDAO.recountSubGenres(selected.getGenreId());
-            refresh.run();
-            dialog.showInformation("Sub-genre deleted successfully!");
+            AsyncDAO.run(() -> {
+                subGenreDAO.deleteById(selected.getId());
+                genreDAO.recountSubGenres(selected.getGenreId());
+            }).whenComplete((v, error) -> finish(error, refresh, "Sub-genre deleted successfully!"));
         }
     }
+
+    // Runs on the FX thread once the database work is done
+    private void finish(Throwable error, Runnable refresh, String message) {
+        if (error != null) {
+            error.printStackTrace();
+            dialog.showError("Database Error", "Operation failed", error.getMessage());
+            return;
+        }
+        refresh.run();
+        if (message != null) dialog.showInformation(message);
+    }
 }
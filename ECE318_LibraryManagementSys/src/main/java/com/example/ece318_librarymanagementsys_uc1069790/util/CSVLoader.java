@@ -7,114 +7,86 @@ import java.util.*;
 
 public class CSVLoader {
 
-    public static List<Book> loadBooks(File csvFile,
-                                       List<Genre> genres,
-                                       List<SubGenre> subGenres) throws IOException {
+    public static List<Book> loadBooks(File csvFile) throws IOException {
         List<Book> books = new ArrayList<>();
+        BookResolver resolver = new BookResolver();
 
-        // Build lookup maps BY NAME
-        Map<String, Integer> genreIdMap = new HashMap<>();
-        for (Genre g : genres) {
-            genreIdMap.put(g.getName().toLowerCase().trim(), g.getId());
-        }
+        try (CSVReader reader = CSVReader.open(csvFile)) {
+            if (!reader.hasNext()) return books;
+            reader.next(); // header
 
-        Map<String, Integer> subGenreIdMap = new HashMap<>();
-        Map<Integer, Integer> subGenreToGenreMap = new HashMap<>();
-        for (SubGenre sg : subGenres) {
-            subGenreIdMap.put(sg.getName().toLowerCase().trim(), sg.getId());
-            subGenreToGenreMap.put(sg.getId(), sg.getGenreId());
+            for (CSVReader.Row p : reader) {
+                Book book = resolver.resolve(p, p.lineNumber());
+                if (book != null) books.add(book);
+            }
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            String header = br.readLine();
-            if (header == null) return books;
+        System.out.println("Loaded " + books.size() + " books from CSV");
+        return books;
+    }
 
-            String line;
-            int lineNumber = 1;
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
-                if (line.trim().isEmpty()) continue;
+    // Maps one Books_df.csv record to a Book, resolving genre/sub-genre ids by name
+    // through GenreDictionary. Stateless, so import workers can share one instance.
+    static final class BookResolver {
 
-                String[] p = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-                if (p.length < 10) {
-                    System.err.println("Skipping line " + lineNumber + " - insufficient columns");
-                    continue;
-                }
-                for (int i = 0; i < p.length; i++) p[i] = stripQuotes(p[i].trim());
-
-                String title = p[1];
-                String author = p[2];
-                String mainGenre = p[3];
-                String subGenre = p[4];
-                String type = p[5];
-                double price = parseDouble(cleanMoney(p[6]));
-                double rating = parseDouble(p[7]);
-                int numRated = parseInt(cleanNumber(p[8]));
-                String url = p[9];
-
-                // Find IDs
-                int subGenreId = subGenreIdMap.getOrDefault(subGenre.toLowerCase().trim(), 0);
-                int genreId = subGenreToGenreMap.getOrDefault(subGenreId, 0);
-
-                if (genreId == 0) {
-                    genreId = genreIdMap.getOrDefault(mainGenre.toLowerCase().trim(), 0);
-                }
+        // null when the row is malformed or references an unknown genre/sub-genre
+        Book resolve(CSVReader.Row p, int lineNumber) {
+            if (p.size() < 10) {
+                System.err.println("Skipping line " + lineNumber + " - insufficient columns");
+                return null;
+            }
 
-                // Skip books with invalid genre/subgenre references
-                if (genreId == 0) {
-                    System.err.println("WARNING: Line " + lineNumber + " - Genre '" + mainGenre +
-                            "' not found in database. Skipping book: " + title);
-                    continue;
-                }
+            String title = p.get(1);
+            String author = p.get(2);
+            String mainGenre = p.get(3);
+            String subGenre = p.get(4);
+            String type = p.get(5);
+            double price = p.getDouble(6);
+            double rating = p.getDouble(7);
+            int numRated = p.getInt(8);
+            String url = p.get(9);
+
+            // Find IDs
+            int subGenreId = GenreDictionary.subGenreId(subGenre);
+            int genreId = GenreDictionary.genreIdOfSubGenre(subGenreId);
+
+            if (genreId == 0) {
+                genreId = GenreDictionary.genreId(mainGenre);
+            }
 
-                if (subGenreId == 0) {
-                    System.err.println("WARNING: Line " + lineNumber + " - SubGenre '" + subGenre +
-                            "' not found in database. Skipping book: " + title);
-                    continue;
-                }
+            // Skip books with invalid genre/subgenre references
+            if (genreId == 0) {
+                System.err.println("WARNING: Line " + lineNumber + " - Genre '" + mainGenre +
+                        "' not found in database. Skipping book: " + title);
+                return null;
+            }
 
-                // Add ALL books from CSV
-                books.add(new Book(
-                        0, title, author, mainGenre, subGenre, type,
-                        price, rating, numRated, url, genreId, subGenreId
-                ));
+            if (subGenreId == 0) {
+                System.err.println("WARNING: Line " + lineNumber + " - SubGenre '" + subGenre +
+                        "' not found in database. Skipping book: " + title);
+                return null;
             }
-        }
 
-        System.out.println("Loaded " + books.size() + " books from CSV");
-        return books;
+            return new Book(
+                    0, title, author, mainGenre, subGenre, type,
+                    price, rating, numRated, url, genreId, subGenreId
+            );
+        }
     }
 
     public static List<Genre> loadGenres(File csvFile) throws IOException {
         List<Genre> genres = new ArrayList<>();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            String header = br.readLine();
-            if (header == null) return genres;
+        try (CSVReader reader = CSVReader.open(csvFile)) {
+            if (!reader.hasNext()) return genres;
+            reader.next(); // header
 
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+            for (CSVReader.Row p : reader) {
+                if (p.size() < 3) continue;
 
-                String[] p = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-                if (p.length < 3) continue;
-
-                for (int i = 0; i < p.length; i++) {
-                    p[i] = stripQuotes(p[i].trim());
-                }
-
-                if (p.length > 3) {
-                    StringBuilder mergedTitle = new StringBuilder();
-                    for (int i = 0; i < p.length - 2; i++) {
-                        mergedTitle.append(p[i]);
-                        if (i < p.length - 3) mergedTitle.append(",");
-                    }
-                    p = new String[]{mergedTitle.toString(), p[p.length - 2], p[p.length - 1]};
-                }
-
-                String name = p[0];
-                int numSubs = parseInt(cleanNumber(p[1]));
-                String url = cleanUrl(p[2]);
+                String name = p.get(0);
+                int numSubs = p.getInt(1);
+                String url = cleanUrl(p.get(2));
 
                 genres.add(new Genre(0, name, numSubs, url));
             }
@@ -124,46 +96,23 @@ public class CSVLoader {
         return genres;
     }
 
-    public static List<SubGenre> loadSubGenres(File csvFile, List<Genre> genres) throws IOException {
+    public static List<SubGenre> loadSubGenres(File csvFile) throws IOException {
         List<SubGenre> subs = new ArrayList<>();
 
-        Map<String, Integer> genreIdMap = new HashMap<>();
-        for (Genre g : genres) {
-            genreIdMap.put(g.getName().toLowerCase().trim(), g.getId());
-        }
-
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-            String header = br.readLine();
-            if (header == null) return subs;
+        try (CSVReader reader = CSVReader.open(csvFile)) {
+            if (!reader.hasNext()) return subs;
+            reader.next(); // header
 
-            String line;
-            int lineNumber = 1;
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
-                if (line.trim().isEmpty()) continue;
+            for (CSVReader.Row p : reader) {
+                int lineNumber = p.lineNumber();
+                if (p.size() < 4) continue;
 
-                String[] p = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-                if (p.length < 4) continue;
+                String name = p.get(0);
+                String mainGenre = p.get(1);
+                int numBooks = p.getInt(2);
+                String url = cleanUrl(p.get(3));
 
-                for (int i = 0; i < p.length; i++) {
-                    p[i] = stripQuotes(p[i].trim());
-                }
-
-                if (p.length > 4) {
-                    StringBuilder mergedGenre = new StringBuilder();
-                    for (int i = 1; i < p.length - 2; i++) {
-                        mergedGenre.append(p[i]);
-                        if (i < p.length - 3) mergedGenre.append(",");
-                    }
-                    p = new String[]{p[0], mergedGenre.toString(), p[p.length - 2], p[p.length - 1]};
-                }
-
-                String name = p[0];
-                String mainGenre = p[1];
-                int numBooks = parseInt(cleanNumber(p[2]));
-                String url = cleanUrl(p[3]);
-
-                int genreId = genreIdMap.getOrDefault(mainGenre.toLowerCase().trim(), 0);
+                int genreId = GenreDictionary.genreId(mainGenre);
 
                 if (genreId == 0) {
                     System.err.println("WARNING: Line " + lineNumber + " - Genre '" + mainGenre +
@@ -187,6 +136,7 @@ public class CSVLoader {
             st.execute("SET FOREIGN_KEY_CHECKS = 0");
             st.executeUpdate("TRUNCATE TABLE genres");
             st.execute("SET FOREIGN_KEY_CHECKS = 1");
+            GenreDictionary.invalidate();
 
             List<Genre> genreList = loadGenres(new File("Genre_df.csv"));
             genreDAO.insertAll(genreList);
@@ -196,16 +146,16 @@ public class CSVLoader {
         }
     }
 
-    public static void reloadSubGenres(SubGenreDAO subGenreDAO, GenreDAO genreDAO) {
+    public static void reloadSubGenres(SubGenreDAO subGenreDAO) {
         try (var conn = DatabaseConnection.getConnection();
              var st = conn.createStatement()) {
 
             st.execute("SET FOREIGN_KEY_CHECKS = 0");
             st.executeUpdate("TRUNCATE TABLE subgenres");
             st.execute("SET FOREIGN_KEY_CHECKS = 1");
+            GenreDictionary.invalidate();
 
-            List<Genre> existingGenres = genreDAO.getAll();
-            List<SubGenre> subGenreList = loadSubGenres(new File("Sub_Genre_df.csv"), existingGenres);
+            List<SubGenre> subGenreList = loadSubGenres(new File("Sub_Genre_df.csv"));
             subGenreDAO.insertAll(subGenreList);
 
         } catch (Exception e) {
@@ -214,43 +164,12 @@ public class CSVLoader {
     }
 
     // HELPER
-    private static String stripQuotes(String s) {
-        if (s == null) return "";
-        s = s.trim();
-        if (s.startsWith("\"") && s.endsWith("\"") && s.length() > 1) {
-            s = s.substring(1, s.length() - 1);
-        }
-        return s;
-    }
-
-    private static String cleanMoney(String s) {
-        if (s == null) return "0";
-        return s.replaceAll("[^0-9.]", "").trim();
-    }
-
-    private static String cleanNumber(String s) {
-        if (s == null) return "0";
-        return s.replaceAll("[^0-9.]", "").trim();
-    }
-
+    // Drops a stray leading "<number>," left in front of some URLs
     private static String cleanUrl(String s) {
         if (s == null) return "";
-        return s.replaceAll("^[0-9.]+,", "").trim();
-    }
-
-    private static double parseDouble(String s) {
-        try {
-            return Double.parseDouble(s.trim());
-        } catch (Exception e) {
-            return 0.0;
-        }
-    }
-
-    private static int parseInt(String s) {
-        try {
-            return (int) Math.round(Double.parseDouble(s.trim()));
-        } catch (Exception e) {
-            return 0;
-        }
+        int i = 0;
+        while (i < s.length() && (Character.isDigit(s.charAt(i)) || s.charAt(i) == '.')) i++;
+        if (i > 0 && i < s.length() && s.charAt(i) == ',') s = s.substring(i + 1);
+        return s.trim();
     }
-}
\ No newline at end of file
+}
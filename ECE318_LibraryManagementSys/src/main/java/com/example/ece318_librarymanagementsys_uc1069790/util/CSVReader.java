@@ -0,0 +1,290 @@
+package com.example.ece318_librarymanagementsys.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Single-pass RFC 4180 tokenizer. Reads the input through a char buffer and
+ * exposes the records as a streaming iterator. Quoted fields may contain commas,
+ * doubled quotes and line breaks.
+ *
+ * The returned {@link Row} is reused between calls to next(), copy out whatever
+ * must outlive the current iteration.
+ */
+public class CSVReader implements Closeable, Iterator<CSVReader.Row>, Iterable<CSVReader.Row> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int bufPos = 0;
+    private int bufLen = 0;
+
+    private final Row row = new Row();
+    private boolean rowReady = false;
+    private boolean eof = false;
+    private int line = 1;
+
+    public CSVReader(Reader in) {
+        this.in = in;
+    }
+
+    public static CSVReader open(File file) throws IOException {
+        return new CSVReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!rowReady) {
+            try {
+                rowReady = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rowReady;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        rowReady = false;
+        return row;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ─── Tokenizer ───────────────────────────────
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    // Reads the next non-empty record into row, false at end of input
+    private boolean readRecord() throws IOException {
+        while (!eof) {
+            row.reset(line);
+            int state = FIELD_START;
+
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    eof = true;
+                    if (state != FIELD_START || row.size > 0 || row.len > 0) row.endField();
+                    break;
+                }
+
+                if (state == QUOTED) {
+                    if (c == '"') state = QUOTE_IN_QUOTED;
+                    else {
+                        if (c == '\n') line++;
+                        row.append((char) c);
+                    }
+                    continue;
+                }
+
+                if (state == QUOTE_IN_QUOTED) {
+                    if (c == '"') {               // escaped quote
+                        row.append('"');
+                        state = QUOTED;
+                        continue;
+                    }
+                    row.closeQuote();
+                    state = UNQUOTED;             // closing quote, fall through
+                }
+
+                if (c == ',') {
+                    row.endField();
+                    state = FIELD_START;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n') read();
+                    line++;
+                    row.endField();
+                    break;
+                } else if (c == '"' && state == FIELD_START) {
+                    row.markQuoted();
+                    state = QUOTED;
+                } else {
+                    if (state == FIELD_START) state = UNQUOTED;
+                    row.append((char) c);
+                }
+            }
+
+            if (!row.isBlank()) return true;
+        }
+        return false;
+    }
+
+    private int read() throws IOException {
+        if (bufPos == bufLen && !fill()) return -1;
+        return buf[bufPos++];
+    }
+
+    private int peek() throws IOException {
+        if (bufPos == bufLen && !fill()) return -1;
+        return buf[bufPos];
+    }
+
+    private boolean fill() throws IOException {
+        bufLen = in.read(buf, 0, buf.length);
+        bufPos = 0;
+        return bufLen > 0;
+    }
+
+    /**
+     * One CSV record. Field text is kept in a shared char array; numeric accessors
+     * parse straight from it without creating intermediate Strings.
+     */
+    public static final class Row {
+        private char[] chars = new char[256];
+        private int len = 0;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private boolean[] quoted = new boolean[16];
+        private int size = 0;
+        private int fieldStart = 0;
+        private boolean fieldQuoted = false;
+        // End of the quoted text; whitespace after it is not part of the field
+        private int quoteEnd = Integer.MAX_VALUE;
+        private int lineNumber;
+
+        private void reset(int lineNumber) {
+            this.lineNumber = lineNumber;
+            len = 0;
+            size = 0;
+            fieldStart = 0;
+            fieldQuoted = false;
+            quoteEnd = Integer.MAX_VALUE;
+        }
+
+        private void append(char c) {
+            if (len == chars.length) chars = Arrays.copyOf(chars, len * 2);
+            chars[len++] = c;
+        }
+
+        private void markQuoted() {
+            fieldQuoted = true;
+        }
+
+        private void closeQuote() {
+            quoteEnd = len;
+        }
+
+        private void endField() {
+            while (len > quoteEnd && Character.isWhitespace(chars[len - 1])) len--;
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                quoted = Arrays.copyOf(quoted, size * 2);
+            }
+            starts[size] = fieldStart;
+            ends[size] = len;
+            quoted[size] = fieldQuoted;
+            size++;
+            fieldStart = len;
+            fieldQuoted = false;
+            quoteEnd = Integer.MAX_VALUE;
+        }
+
+        private boolean isBlank() {
+            for (int i = 0; i < len; i++) {
+                if (!Character.isWhitespace(chars[i])) return false;
+            }
+            return size == 0 || (size == 1 && !quoted[0]);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Physical line the record starts on (1-based, header is line 1)
+        public int lineNumber() {
+            return lineNumber;
+        }
+
+        // Trimmed field text, "" when the column is missing
+        public String get(int i) {
+            if (i >= size) return "";
+            int s = starts[i];
+            int e = ends[i];
+            if (!quoted[i]) {
+                while (s < e && Character.isWhitespace(chars[s])) s++;
+                while (e > s && Character.isWhitespace(chars[e - 1])) e--;
+            }
+            return new String(chars, s, e - s);
+        }
+
+        /**
+         * Parses prices like "₹1,169.00" or plain numbers like "-4.4": an optional
+         * sign and currency symbol, digits with ',' grouping and at most one '.'.
+         * Returns 0 when the field holds no digits or anything else after the
+         * number, e.g. "4.4 out of 5", as the String parsing it replaced did.
+         */
+        public double getDouble(int i) {
+            if (i >= size) return 0.0;
+
+            int p = starts[i];
+            int e = ends[i];
+            while (e > p && Character.isWhitespace(chars[e - 1])) e--;
+
+            p = skipSymbols(p, e);
+            boolean negative = false;
+            if (p < e && (chars[p] == '-' || chars[p] == '+')) {
+                negative = chars[p] == '-';
+                p = skipSymbols(p + 1, e);
+            }
+
+            long mantissa = 0;
+            int scale = 0;
+            int digits = 0;
+            boolean fraction = false;
+
+            for (; p < e; p++) {
+                char c = chars[p];
+                if (c >= '0' && c <= '9') {
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                        if (fraction) scale++;
+                    } else if (!fraction) {
+                        scale--;              // out of precision, keep the magnitude
+                    }
+                } else if (c == '.' && !fraction) {
+                    fraction = true;
+                } else if (c != ',' || fraction || digits == 0) {
+                    return 0.0;               // not a number, or text after it
+                }
+            }
+
+            if (digits == 0) return 0.0;
+            double value = scale >= 0 ? mantissa / Math.pow(10, scale) : mantissa * Math.pow(10, -scale);
+            return negative ? -value : value;
+        }
+
+        // Whitespace and currency signs around the sign of a number
+        private int skipSymbols(int p, int e) {
+            while (p < e && (Character.isWhitespace(chars[p])
+                    || Character.getType(chars[p]) == Character.CURRENCY_SYMBOL)) {
+                p++;
+            }
+            return p;
+        }
+
+        // Counts such as "19923.0", rounded to the nearest integer
+        public int getInt(int i) {
+            return (int) Math.round(getDouble(i));
+        }
+    }
+}
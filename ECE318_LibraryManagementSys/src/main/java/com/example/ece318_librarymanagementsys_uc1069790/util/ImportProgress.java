@@ -0,0 +1,94 @@
+package com.example.ece318_librarymanagementsys.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of one CSV import. Parser and writer threads add to them, the
+ * progress dialog polls them on the FX thread, and a cancel request is picked
+ * up by the workers at their next chunk.
+ */
+public final class ImportProgress {
+
+    private final long totalBytes;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    private volatile boolean parsingDone = false;
+    private volatile boolean cancelled = false;
+
+    public ImportProgress(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public void parsed(long rows, long bytes) {
+        parsed.addAndGet(rows);
+        bytesParsed.addAndGet(bytes);
+    }
+
+    public void parsingDone() {
+        parsingDone = true;
+    }
+
+    // Rows written (inserted or updated) and rows left alone
+    public void stored(long written, long skipped) {
+        this.written.addAndGet(written);
+        this.skipped.addAndGet(skipped);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Called by the workers between chunks
+    public void checkCancelled() {
+        if (cancelled) throw new CancellationException("Import cancelled");
+    }
+
+    public long getParsed() {
+        return parsed.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public double rowsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : (written.get() + skipped.get()) / seconds;
+    }
+
+    /**
+     * Share of the import done, or -1 while unknown. Rows stored out of rows parsed,
+     * scaled by the share of the file parsed so far while parsing is still running.
+     */
+    public double fraction() {
+        long rows = parsed.get();
+        if (rows == 0) return -1;
+
+        double stored = Math.min(1.0, (double) (written.get() + skipped.get()) / rows);
+        if (parsingDone) return stored;
+        if (totalBytes <= 0 || bytesParsed.get() == 0) return -1;
+        return stored * Math.min(1.0, (double) bytesParsed.get() / totalBytes);
+    }
+
+    // Seconds left at the current pace, or -1 while unknown
+    public long etaSeconds() {
+        double f = fraction();
+        if (f <= 0) return -1;
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+        return Math.round(elapsed * (1 - f) / f);
+    }
+}
@@ -1,10 +1,9 @@
 package com.example.ece318_librarymanagementsys.util;
 
-import com.example.ece318_librarymanagementsys.database.GenreDAO;
-import com.example.ece318_librarymanagementsys.database.SubGenreDAO;
 import com.example.ece318_librarymanagementsys.model.Book;
 import com.example.ece318_librarymanagementsys.model.Genre;
 import com.example.ece318_librarymanagementsys.model.SubGenre;
+import com.example.ece318_librarymanagementsys.search.BookLeaderboards;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.*;
 import javafx.stage.FileChooser;
@@ -13,10 +12,14 @@ import javafx.stage.Window;
 import java.awt.Color;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.text.DecimalFormat;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 // Unified PDF Exporter
 
@@ -33,39 +36,87 @@ public class PDFExporter {
     }
 
     private static void exportBooks(File file, List<Book> books) throws Exception {
+        streamBooks(file, books.stream(), books.size(), n -> {});
+    }
+
+    // Rows per doc.add: each flush lays the finished rows out on pages and lets them go
+    private static final int FLUSH_ROWS = 500;
+
+    private static final Font BOOK_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9);
+
+    /**
+     * Writes books as they arrive, so the table never has to fit in memory. The table
+     * is in incomplete mode and added to the document every FLUSH_ROWS rows; OpenPDF
+     * renders those rows and drops them, repeating the header row on every page. All
+     * cells are copied from one template cell with one font, and numbers go through
+     * reused formatters. {@code onProgress} gets the number of rows written after each
+     * flush and may throw to abort; the partial file is then deleted.
+     */
+    public static void streamBooks(File file, Stream<Book> books, long total, LongConsumer onProgress)
+            throws Exception {
         Document doc = new Document(PageSize.A4, 50, 50, 60, 50);
         PdfWriter writer = PdfWriter.getInstance(doc, new FileOutputStream(file));
-        doc.open();
 
-        // Title
-        Paragraph title = new Paragraph("Library Books Export",
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18));
-        title.setAlignment(Element.ALIGN_CENTER);
-        doc.add(title);
-
-        Paragraph subtitle = new Paragraph(
-                "Exported on " + LocalDateTime.now() + " | Total Books: " + books.size(),
-                FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10)
-        );
-        subtitle.setAlignment(Element.ALIGN_CENTER);
-        subtitle.setSpacingAfter(20);
-        doc.add(subtitle);
+        try {
+            doc.open();
+
+            // Title
+            Paragraph title = new Paragraph("Library Books Export",
+                    FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18));
+            title.setAlignment(Element.ALIGN_CENTER);
+            doc.add(title);
+
+            Paragraph subtitle = new Paragraph(
+                    "Exported on " + LocalDateTime.now() + " | Total Books: " + total,
+                    FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10)
+            );
+            subtitle.setAlignment(Element.ALIGN_CENTER);
+            subtitle.setSpacingAfter(20);
+            doc.add(subtitle);
+
+            PdfPTable table = createStyledTable(6, 3f, 2.5f, 2.5f, 2.5f, 1.2f, 1.5f);
+            table.setComplete(false);
+            addHeaderRow(table, "Title", "Author", "Genre", "Sub-Genre", "Rating", "Price");
+            table.setHeaderRows(1);
+
+            PdfPCell cell = table.getDefaultCell();
+            cell.setHorizontalAlignment(Element.ALIGN_LEFT);
+            cell.setPadding(6);
 
-        PdfPTable table = createStyledTable(6, 3f, 2.5f, 2.5f, 2.5f, 1.2f, 1.5f);
-        addHeaderRow(table, "Title", "Author", "Genre", "Sub-Genre", "Rating", "Price");
+            DecimalFormat rating = new DecimalFormat("0.0★");
+            DecimalFormat price = new DecimalFormat("$0.00");
+
+            long written = 0;
+            Iterator<Book> it = books.iterator();
+            while (it.hasNext()) {
+                Book b = it.next();
+                table.addCell(new Phrase(nullSafe(b.getTitle()), BOOK_FONT));
+                table.addCell(new Phrase(nullSafe(b.getAuthor()), BOOK_FONT));
+                table.addCell(new Phrase(nullSafe(b.getMainGenre()), BOOK_FONT));
+                table.addCell(new Phrase(nullSafe(b.getSubGenre()), BOOK_FONT));
+                table.addCell(new Phrase(rating.format(b.getRating()), BOOK_FONT));
+                table.addCell(new Phrase(price.format(b.getPrice()), BOOK_FONT));
+
+                if (++written % FLUSH_ROWS == 0) {
+                    doc.add(table);
+                    onProgress.accept(written);
+                }
+            }
+
+            table.setComplete(true);
+            doc.add(table);
+            onProgress.accept(written);
+            doc.close();
 
-        Font normal = FontFactory.getFont(FontFactory.HELVETICA, 9);
-        for (Book b : books) {
-            addStyledCell(table, nullSafe(b.getTitle()), normal);
-            addStyledCell(table, nullSafe(b.getAuthor()), normal);
-            addStyledCell(table, nullSafe(b.getMainGenre()), normal);
-            addStyledCell(table, nullSafe(b.getSubGenre()), normal);
-            addStyledCell(table, String.format("%.1f★", b.getRating()), normal);
-            addStyledCell(table, String.format("$%.2f", b.getPrice()), normal);
+        } catch (Exception e) {
+            try {
+                doc.close();
+            } catch (RuntimeException closeError) {
+                e.addSuppressed(closeError);
+            }
+            file.delete();
+            throw e;
         }
-
-        doc.add(table);
-        doc.close();
         writer.close();
     }
 
@@ -98,26 +149,18 @@ public class PDFExporter {
         subtitle.setSpacingAfter(20);
         doc.add(subtitle);
 
-        // Fetch stats from DB
-        GenreDAO genreDAO = new GenreDAO();
-        List<GenreDAO.GenreStat> stats = genreDAO.getGenreStats();
-        Map<String, GenreDAO.GenreStat> statMap = new HashMap<>();
-        for (GenreDAO.GenreStat s : stats) {
-            statMap.put(s.name, s);
-        }
-
         PdfPTable table = createStyledTable(5, 3f, 2f, 2f, 2f, 2f);
         addHeaderRow(table, "Genre Name", "No. of Sub-Genres", "Total No. of Books", "Avg Rating", "Avg Price");
 
         Font normal = FontFactory.getFont(FontFactory.HELVETICA, 9);
         for (Genre g : genres) {
-            GenreDAO.GenreStat s = statMap.get(g.getName());
+            StatsStore.Aggregate s = StatsStore.genre(g.getId());
 
             addStyledCell(table, nullSafe(g.getName()), normal);
             addStyledCell(table, String.valueOf(g.getNumSubGenres()), normal);
-            addStyledCell(table, s != null ? String.valueOf(s.totalBooks) : "0", normal);
-            addStyledCell(table, s != null ? String.format("%.2f★", s.avgRating) : "0.00★", normal);
-            addStyledCell(table, s != null ? String.format("$%.2f", s.avgPrice) : "0.00", normal);
+            addStyledCell(table, String.valueOf(s.count), normal);
+            addStyledCell(table, String.format("%.2f★", s.avgRating), normal);
+            addStyledCell(table, String.format("$%.2f", s.avgPrice), normal);
         }
 
         doc.add(table);
@@ -154,27 +197,19 @@ public class PDFExporter {
         subtitle.setSpacingAfter(20);
         doc.add(subtitle);
 
-        // Fetch stats from DB
-        SubGenreDAO subGenreDAO = new SubGenreDAO();
-        List<SubGenreDAO.SubGenreStat> stats = subGenreDAO.getSubGenreStats();
-        Map<String, SubGenreDAO.SubGenreStat> statMap = new HashMap<>();
-        for (SubGenreDAO.SubGenreStat s : stats) {
-            statMap.put(s.name, s);
-        }
-
         PdfPTable table = createStyledTable(6, 3f, 2.5f, 2f, 2f, 2f, 2f);
         addHeaderRow(table, "Sub-Genre Name", "Main Genre", "No. of Books", "Avg Rating", "Avg Price", "Total Books");
 
         Font normal = FontFactory.getFont(FontFactory.HELVETICA, 9);
         for (SubGenre sg : subGenres) {
-            SubGenreDAO.SubGenreStat s = statMap.get(sg.getName());
+            StatsStore.Aggregate s = StatsStore.subGenre(sg.getId());
 
             addStyledCell(table, nullSafe(sg.getName()), normal);
             addStyledCell(table, nullSafe(sg.getMainGenre()), normal);
             addStyledCell(table, String.valueOf(sg.getNumBooks()), normal);
-            addStyledCell(table, s != null ? String.format("%.2f★", s.avgRating) : "0.00★", normal);
-            addStyledCell(table, s != null ? String.format("$%.2f", s.avgPrice) : "0.00", normal);
-            addStyledCell(table, s != null ? String.valueOf(s.totalBooks) : "0", normal);
+            addStyledCell(table, String.format("%.2f★", s.avgRating), normal);
+            addStyledCell(table, String.format("$%.2f", s.avgPrice), normal);
+            addStyledCell(table, String.valueOf(s.count), normal);
         }
 
         doc.add(table);
@@ -182,7 +217,104 @@ public class PDFExporter {
         writer.close();
     }
 
-    private static File promptForFile(Window owner, String title) {
+    // Export Leaderboards
+    public static boolean promptAndExportLeaderboards(Window owner, List<Genre> genres,
+                                                      List<? extends SubGenre> subGenres,
+                                                      BookLeaderboards leaderboards) throws Exception {
+        File file = promptForFile(owner, "Export Top Books to PDF");
+        if (file == null || genres == null || genres.isEmpty()) {
+            return false;
+        }
+        exportLeaderboards(file, genres, subGenres, leaderboards);
+        return true;
+    }
+
+    // Books listed per board in the report
+    private static final int REPORT_TOP = 5;
+
+    private static void exportLeaderboards(File file, List<Genre> genres, List<? extends SubGenre> subGenres,
+                                           BookLeaderboards leaderboards) throws Exception {
+        Document doc = new Document(PageSize.A4.rotate(), 50, 50, 60, 50); // Landscape
+        PdfWriter writer = PdfWriter.getInstance(doc, new FileOutputStream(file));
+        doc.open();
+
+        // Title
+        Paragraph title = new Paragraph("Library Top Books Report",
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18));
+        title.setAlignment(Element.ALIGN_CENTER);
+        doc.add(title);
+
+        Paragraph subtitle = new Paragraph(
+                "Exported on " + LocalDateTime.now() + " | Top " + REPORT_TOP + " per genre and sub-genre",
+                FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10)
+        );
+        subtitle.setAlignment(Element.ALIGN_CENTER);
+        subtitle.setSpacingAfter(20);
+        doc.add(subtitle);
+
+        Font genreFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 13);
+        Font subGenreFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
+        for (Genre g : genres) {
+            addLeaderboard(doc, nullSafe(g.getName()), genreFont, leaderboards,
+                    board -> leaderboards.genreTop(g.getId(), board));
+
+            for (SubGenre sg : subGenres) {
+                if (sg.getGenreId() != g.getId()) continue;
+                addLeaderboard(doc, nullSafe(g.getName()) + " › " + nullSafe(sg.getName()), subGenreFont,
+                        leaderboards, board -> leaderboards.subGenreTop(sg.getId(), board));
+            }
+        }
+
+        doc.close();
+        writer.close();
+    }
+
+    // One heading and a rank × board table
+    private static void addLeaderboard(Document doc, String heading, Font headingFont, BookLeaderboards leaderboards,
+                                       Function<BookLeaderboards.Board, List<Book>> top) throws DocumentException {
+        BookLeaderboards.Board[] boards = BookLeaderboards.Board.values();
+        List<List<Book>> columns = new ArrayList<>();
+        int rows = 0;
+        for (BookLeaderboards.Board board : boards) {
+            List<Book> books = top.apply(board);
+            columns.add(books);
+            rows = Math.max(rows, Math.min(REPORT_TOP, books.size()));
+        }
+        if (rows == 0) return;
+
+        Paragraph p = new Paragraph(heading, headingFont);
+        p.setSpacingBefore(10);
+        p.setSpacingAfter(6);
+        doc.add(p);
+
+        PdfPTable table = createStyledTable(5, 0.6f, 3f, 3f, 3f, 3f);
+        String[] headers = new String[boards.length + 1];
+        headers[0] = "#";
+        for (int i = 0; i < boards.length; i++) headers[i + 1] = boards[i].toString();
+        addHeaderRow(table, headers);
+
+        Font normal = FontFactory.getFont(FontFactory.HELVETICA, 9);
+        for (int r = 0; r < rows; r++) {
+            addStyledCell(table, String.valueOf(r + 1), normal);
+            for (int c = 0; c < boards.length; c++) {
+                List<Book> books = columns.get(c);
+                addStyledCell(table, r < books.size() ? describe(boards[c], books.get(r), leaderboards) : "", normal);
+            }
+        }
+        doc.add(table);
+    }
+
+    private static String describe(BookLeaderboards.Board board, Book b, BookLeaderboards leaderboards) {
+        String title = nullSafe(b.getTitle());
+        switch (board) {
+            case MOST_REVIEWED: return title + String.format(" (%,d)", b.getNumRated());
+            case WEIGHTED: return title + String.format(" (%.2f)", leaderboards.weightedRating(b));
+            case CHEAPEST: return title + String.format(" ($%.2f)", b.getPrice());
+            default: return title + String.format(" (%.1f★)", b.getRating());
+        }
+    }
+
+    public static File promptForFile(Window owner, String title) {
         FileChooser chooser = new FileChooser();
         chooser.setTitle(title);
         chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
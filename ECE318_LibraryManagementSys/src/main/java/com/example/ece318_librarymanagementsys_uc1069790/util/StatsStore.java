@@ -0,0 +1,136 @@
+package com.example.ece318_librarymanagementsys.util;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+
+import java.util.*;
+
+/**
+ * Live per-genre and per-sub-genre book statistics kept in memory.
+ *
+ * Seeded from the loaded book list, then updated in O(1) by the book CRUD paths,
+ * so tables, details panels and reports read current values without running an
+ * aggregate query. Count and sums are exact at all times; a min/max that leaves
+ * with a deleted or edited book is recomputed from the book list on the next read.
+ * Only used on the FX thread, and only changed together with that list, after
+ * the database write is confirmed, so a repair never reads a list that lags behind.
+ */
+public final class StatsStore {
+
+    // Read-only view of one group
+    public static final class Aggregate {
+        public final int count;
+        public final double avgRating;
+        public final double avgPrice;
+        public final double minPrice;
+        public final double maxPrice;
+        public final double minRating;
+        public final double maxRating;
+
+        private Aggregate(Bucket b) {
+            this.count = b.count;
+            this.avgRating = b.count == 0 ? 0.0 : round2(b.ratingSum / b.count);
+            this.avgPrice = b.count == 0 ? 0.0 : round2(b.priceSum / b.count);
+            this.minPrice = b.count == 0 ? 0.0 : b.minPrice;
+            this.maxPrice = b.count == 0 ? 0.0 : b.maxPrice;
+            this.minRating = b.count == 0 ? 0.0 : b.minRating;
+            this.maxRating = b.count == 0 ? 0.0 : b.maxRating;
+        }
+    }
+
+    private static final Aggregate EMPTY = new Aggregate(new Bucket());
+
+    private static final Map<Integer, Bucket> byGenre = new HashMap<>();
+    private static final Map<Integer, Bucket> bySubGenre = new HashMap<>();
+    private static Collection<Book> source = List.of();
+
+    private StatsStore() {}
+
+    // Rebuilds every group from the given list, which is also used to repair min/max later
+    public static void seed(Collection<Book> books) {
+        byGenre.clear();
+        bySubGenre.clear();
+        source = books;
+        for (Book b : books) add(b);
+    }
+
+    public static void add(Book b) {
+        byGenre.computeIfAbsent(b.getGenreId(), k -> new Bucket()).add(b);
+        bySubGenre.computeIfAbsent(b.getSubGenreId(), k -> new Bucket()).add(b);
+    }
+
+    public static void remove(Book b) {
+        Bucket g = byGenre.get(b.getGenreId());
+        if (g != null) g.remove(b);
+
+        Bucket s = bySubGenre.get(b.getSubGenreId());
+        if (s != null) s.remove(b);
+    }
+
+    public static Aggregate genre(int genreId) {
+        Bucket b = byGenre.get(genreId);
+        if (b == null) return EMPTY;
+        if (b.extremesStale) b.repair(source, book -> book.getGenreId() == genreId);
+        return new Aggregate(b);
+    }
+
+    public static Aggregate subGenre(int subGenreId) {
+        Bucket b = bySubGenre.get(subGenreId);
+        if (b == null) return EMPTY;
+        if (b.extremesStale) b.repair(source, book -> book.getSubGenreId() == subGenreId);
+        return new Aggregate(b);
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    private static final class Bucket {
+        int count;
+        double priceSum;
+        double ratingSum;
+        double minPrice = Double.POSITIVE_INFINITY;
+        double maxPrice = Double.NEGATIVE_INFINITY;
+        double minRating = Double.POSITIVE_INFINITY;
+        double maxRating = Double.NEGATIVE_INFINITY;
+        boolean extremesStale;
+
+        void add(Book b) {
+            count++;
+            priceSum += b.getPrice();
+            ratingSum += b.getRating();
+            minPrice = Math.min(minPrice, b.getPrice());
+            maxPrice = Math.max(maxPrice, b.getPrice());
+            minRating = Math.min(minRating, b.getRating());
+            maxRating = Math.max(maxRating, b.getRating());
+        }
+
+        void remove(Book b) {
+            count = Math.max(count - 1, 0);
+            priceSum -= b.getPrice();
+            ratingSum -= b.getRating();
+
+            if (count == 0) {
+                priceSum = 0;
+                ratingSum = 0;
+                extremesStale = true;
+            } else if (b.getPrice() <= minPrice || b.getPrice() >= maxPrice
+                    || b.getRating() <= minRating || b.getRating() >= maxRating) {
+                extremesStale = true;
+            }
+        }
+
+        // Only runs after an extreme value left the group
+        void repair(Collection<Book> books, java.util.function.Predicate<Book> inGroup) {
+            minPrice = minRating = Double.POSITIVE_INFINITY;
+            maxPrice = maxRating = Double.NEGATIVE_INFINITY;
+            for (Book b : books) {
+                if (!inGroup.test(b)) continue;
+                minPrice = Math.min(minPrice, b.getPrice());
+                maxPrice = Math.max(maxPrice, b.getPrice());
+                minRating = Math.min(minRating, b.getRating());
+                maxRating = Math.max(maxRating, b.getRating());
+            }
+            extremesStale = false;
+        }
+    }
+}
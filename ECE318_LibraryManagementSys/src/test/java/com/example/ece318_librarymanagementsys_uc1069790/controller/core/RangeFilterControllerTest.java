@@ -0,0 +1,75 @@
+package com.example.ece318_librarymanagementsys.controller.core;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import com.example.ece318_librarymanagementsys.search.BookOrder;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeFilterControllerTest {
+
+    // A new RangeSlider: min 0, max 1, thumbs at 0.25 and 0.75
+    private final DoubleProperty min = new SimpleDoubleProperty(0);
+    private final DoubleProperty max = new SimpleDoubleProperty(1);
+    private final DoubleProperty low = new SimpleDoubleProperty(0.25);
+    private final DoubleProperty high = new SimpleDoubleProperty(0.75);
+    private final AtomicInteger changes = new AtomicInteger();
+
+    private RangeFilterController filter(boolean logScale) {
+        return new RangeFilterController(min, max, low, high, text -> {}, "Price",
+                v -> String.format("%.0f", v), logScale, changes::incrementAndGet);
+    }
+
+    private static Book book(int id, double price) {
+        return new Book(id, "Book " + id, "Author", "Fiction", "Thrillers", "Paperback", price, 4.0, 10, "", 1, 1);
+    }
+
+    @Test
+    void freshLoadShowsEveryRow() {
+        ObservableList<Book> books = FXCollections.observableArrayList(
+                book(1, 99), book(2, 250), book(3, 1200), book(4, 4999));
+        BookOrder order = new BookOrder(books);
+
+        RangeFilterController f = filter(true);
+        f.setBounds(order.min(BookOrder.Key.PRICE), order.max(BookOrder.Key.PRICE));
+
+        assertFalse(f.isActive());
+        assertEquals(books.size(), order.range(BookOrder.Key.PRICE, f.getLow(), f.getHigh()).cardinality());
+        assertEquals(0, changes.get());
+    }
+
+    @Test
+    void openFilterFollowsNewBounds() {
+        RangeFilterController f = filter(false);
+        f.setBounds(10, 20);
+        f.setBounds(5, 50);
+
+        assertFalse(f.isActive());
+        assertEquals(5, low.get());
+        assertEquals(50, high.get());
+        assertEquals(Double.NEGATIVE_INFINITY, f.getLow());
+        assertEquals(Double.POSITIVE_INFINITY, f.getHigh());
+    }
+
+    @Test
+    void narrowedFilterIsClampedNotReopened() {
+        RangeFilterController f = filter(false);
+        f.setBounds(0, 100);
+        low.set(30);
+        high.set(60);
+        assertTrue(f.isActive());
+        assertEquals(2, changes.get());
+
+        f.setBounds(40, 200);
+        assertTrue(f.isActive());
+        assertEquals(40, low.get());
+        assertEquals(60, high.get());
+        assertEquals(2, changes.get());
+    }
+}
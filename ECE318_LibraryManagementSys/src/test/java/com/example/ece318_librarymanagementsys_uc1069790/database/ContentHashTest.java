@@ -0,0 +1,78 @@
+package com.example.ece318_librarymanagementsys.database;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashTest {
+
+    private static final String URL = "https://www.amazon.in/Psychology-Money-Morgan-Housel/dp/9390166268/ref=zg_bs_1";
+
+    private static Book book(String title, String author, String url, double price) {
+        return new Book(0, title, author, "Fiction", "Thrillers", "Paperback", price, 4.5, 120, url, 1, 7);
+    }
+
+    @Test
+    void normalizeFoldsCaseAndCollapsesWhitespace() {
+        assertEquals("the hobbit", ContentHash.normalize("  The \t Hobbit\n"));
+        assertEquals("a b", ContentHash.normalize("A  B"));
+        assertEquals("", ContentHash.normalize(null));
+        assertEquals("", ContentHash.normalize("   "));
+    }
+
+    @Test
+    void productKeyIsTheAsin() {
+        assertEquals("9390166268", ContentHash.productKey(URL));
+        assertEquals("B08XYZ1234", ContentHash.productKey("https://www.amazon.in/gp/product/b08xyz1234?tag=x"));
+        assertEquals("B08XYZ1234", ContentHash.productKey("https://www.amazon.in/dp/B08XYZ1234"));
+    }
+
+    @Test
+    void productKeyFallsBackToTheNormalizedUrl() {
+        assertEquals("https://example.com/book", ContentHash.productKey(" HTTPS://Example.com/Book "));
+        assertEquals("", ContentHash.productKey(null));
+        // ten characters followed by more is not an ASIN
+        assertEquals("https://x/dp/12345678901", ContentHash.productKey("https://x/dp/12345678901"));
+    }
+
+    @Test
+    void sameListingHashesAlikeAcrossFormattingAndRankingPaths() {
+        long a = ContentHash.of(book("The Hobbit", "J.R.R. Tolkien", URL, 299));
+        long b = ContentHash.of(book("the  HOBBIT ", "j.r.r. tolkien",
+                "https://www.amazon.in/dp/9390166268/ref=zg_bs_2", 349));
+        assertEquals(a, b);
+    }
+
+    @Test
+    void fieldsAreSeparatedBeforeHashing() {
+        assertNotEquals(ContentHash.of("ab", "c", "g", "s", "t", ""),
+                ContentHash.of("a", "bc", "g", "s", "t", ""));
+        assertNotEquals(ContentHash.of("Dune", "Herbert", "g", "s", "Paperback", ""),
+                ContentHash.of("Dune", "Herbert", "g", "s", "Hardcover", ""));
+    }
+
+    @Test
+    void rowHashSeesPriceButNotTheRankingPath() {
+        long row = ContentHash.ofRow(book("Dune", "Frank Herbert", URL, 299));
+        assertEquals(row, ContentHash.ofRow(book("Dune", "Frank Herbert",
+                "https://www.amazon.in/dp/9390166268/ref=zg_bs_9", 299)));
+        assertNotEquals(row, ContentHash.ofRow(book("Dune", "Frank Herbert", URL, 300)));
+        // unlike the content hash, the row hash keeps the text as exported
+        assertNotEquals(row, ContentHash.ofRow(book("DUNE", "Frank Herbert", URL, 299)));
+    }
+
+    @Test
+    void sourceKeyIsAsinWithinSubGenre() {
+        assertEquals("9390166268/7", ContentHash.sourceKey("12", URL, 7));
+        assertEquals("9390166268/8", ContentHash.sourceKey("12", URL, 8));
+    }
+
+    @Test
+    void sourceKeyFallsBackToTheIndexColumn() {
+        assertEquals("#42", ContentHash.sourceKey(" 42 ", "https://example.com/book", 7));
+        assertEquals("#42", ContentHash.sourceKey("42", null, 7));
+        assertNull(ContentHash.sourceKey(" ", "https://example.com/book", 7));
+        assertNull(ContentHash.sourceKey(null, null, 7));
+    }
+}
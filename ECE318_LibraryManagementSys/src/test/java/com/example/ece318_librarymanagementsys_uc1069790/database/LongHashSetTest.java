@@ -0,0 +1,44 @@
+package com.example.ece318_librarymanagementsys.database;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addReportsWhetherTheValueWasNew() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(-42));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(Long.MIN_VALUE));
+    }
+
+    @Test
+    void zeroIsAnOrdinaryValue() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(1));
+        assertFalse(set.add(0));
+    }
+
+    @Test
+    void keepsEveryValueWhileGrowing() {
+        LongHashSet set = new LongHashSet(16);
+        int n = 100_000;
+        for (long i = 1; i <= n; i++) assertTrue(set.add(i * 0x9E3779B97F4A7C15L));
+        for (long i = 1; i <= n; i++) assertFalse(set.add(i * 0x9E3779B97F4A7C15L));
+        assertTrue(set.add((n + 1) * 0x9E3779B97F4A7C15L));
+    }
+
+    @Test
+    void collidingValuesProbeOnward() {
+        // equal low and high halves fold to the same slot index
+        LongHashSet set = new LongHashSet(16);
+        for (long i = 1; i <= 1_000; i++) assertTrue(set.add((i << 32) | i));
+        for (long i = 1; i <= 1_000; i++) assertFalse(set.add((i << 32) | i));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookOrderTest {
+
+    private static Book book(int id, String title, double price, double rating, int numRated) {
+        return new Book(id, title, "Author " + id, "Fiction", "Thrillers", "Paperback",
+                price, rating, numRated, "https://example.com/" + id, 1, 1);
+    }
+
+    private static ObservableList<Book> catalogue() {
+        return FXCollections.observableArrayList(
+                book(1, "Dune", 499, 4.6, 1200),
+                book(2, "Emma", 199, 4.1, 300),
+                book(3, "Beloved", 299, 4.4, 800),
+                book(4, "Atonement", 299, 3.9, 50),
+                book(5, "Carrie", 150, 4.1, 5000));
+    }
+
+    private static List<Integer> ids(BookOrder order, BookOrder.Key key, boolean descending) {
+        List<Integer> out = new ArrayList<>();
+        order.forEachId(key, descending, out::add);
+        return out;
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet b = new BitSet();
+        for (int id : ids) b.set(id);
+        return b;
+    }
+
+    @Test
+    void ordersBreakTiesById() {
+        BookOrder order = new BookOrder(catalogue());
+
+        assertEquals(List.of(4, 3, 5, 1, 2), ids(order, BookOrder.Key.TITLE, false));
+        assertEquals(List.of(5, 2, 3, 4, 1), ids(order, BookOrder.Key.PRICE, false));
+        assertEquals(List.of(1, 3, 5, 2, 4), ids(order, BookOrder.Key.RATING, true));
+    }
+
+    @Test
+    void rangeIsInclusiveAtBothEnds() {
+        BookOrder order = new BookOrder(catalogue());
+
+        assertEquals(bits(2, 3, 4), order.range(BookOrder.Key.PRICE, 199, 299));
+        assertEquals(bits(2, 5), order.range(BookOrder.Key.RATING, 4.1, 4.1));
+        assertEquals(bits(), order.range(BookOrder.Key.PRICE, 300, 450));
+        assertEquals(bits(1, 2, 3, 4, 5),
+                order.range(BookOrder.Key.NUM_RATED, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+        assertEquals(150, order.min(BookOrder.Key.PRICE));
+        assertEquals(5000, order.max(BookOrder.Key.NUM_RATED));
+    }
+
+    @Test
+    void singleChangesMoveOneBook() {
+        ObservableList<Book> books = catalogue();
+        BookOrder order = new BookOrder(books);
+        ids(order, BookOrder.Key.PRICE, false); // build the order first
+
+        books.set(0, book(1, "Dune", 99, 4.6, 1200));
+        books.remove(1);
+        books.add(book(9, "Frankenstein", 250, 4.0, 700));
+
+        assertEquals(List.of(1, 5, 9, 3, 4), ids(order, BookOrder.Key.PRICE, false));
+        assertEquals(bits(1, 5), order.range(BookOrder.Key.PRICE, 0, 199));
+        assertNull(order.book(2));
+        assertEquals(99, order.book(1).getPrice());
+    }
+
+    @Test
+    void bulkChangesRebuildTheOrders() {
+        ObservableList<Book> books = catalogue();
+        BookOrder order = new BookOrder(books);
+        ids(order, BookOrder.Key.RATING, false);
+
+        books.setAll(book(7, "Ulysses", 350, 3.5, 90), book(8, "Walden", 120, 4.8, 40));
+
+        assertEquals(List.of(7, 8), ids(order, BookOrder.Key.RATING, false));
+        assertEquals(bits(8), order.range(BookOrder.Key.RATING, 4, 5));
+        assertEquals(120, order.min(BookOrder.Key.PRICE));
+    }
+
+    @Test
+    void emptyListHasNoBounds() {
+        BookOrder order = new BookOrder(FXCollections.observableArrayList());
+        assertEquals(0, order.min(BookOrder.Key.PRICE));
+        assertEquals(0, order.max(BookOrder.Key.PRICE));
+        assertTrue(order.range(BookOrder.Key.PRICE, 0, 100).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevenshteinTest {
+
+    // index -> distance, -1 when not reported; fails on a repeated or out-of-order report
+    private static int[] walk(String[] words, String query, int max) {
+        int[] found = new int[words.length];
+        Arrays.fill(found, -1);
+        int[] last = {-1};
+        Levenshtein.walk(words, query, max, (index, distance) -> {
+            assertTrue(index > last[0], "reported out of order: " + index);
+            last[0] = index;
+            found[index] = distance;
+        });
+        return found;
+    }
+
+    private static int[] bruteForce(String[] words, String query, int max) {
+        int[] expected = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            int d = Levenshtein.prefixDistance(words[i], query, max);
+            expected[i] = d <= max ? d : -1;
+        }
+        return expected;
+    }
+
+    @Test
+    void allowedTyposGrowWithTheWord() {
+        assertEquals(0, Levenshtein.maxDistance("ab"));
+        assertEquals(1, Levenshtein.maxDistance("hobit"));
+        assertEquals(2, Levenshtein.maxDistance("tolkein"));
+    }
+
+    @Test
+    void prefixDistanceMatchesPartlyTypedWords() {
+        assertEquals(0, Levenshtein.prefixDistance("tolkien", "tolk", 2));
+        assertEquals(1, Levenshtein.prefixDistance("hobbit", "hobit", 1));
+        assertEquals(2, Levenshtein.prefixDistance("tolkien", "tolkein", 2));
+        // capped at max + 1
+        assertEquals(2, Levenshtein.prefixDistance("dune", "xyzw", 1));
+    }
+
+    @Test
+    void wordsUnderAPrefixPastTheBoundShareItsDistance() {
+        // "caxy" already costs two edits against "cat", so the walk jumps over the whole block
+        String[] words = {"ca", "caxy", "caxya", "caxyb", "caxyc", "caxyd", "cb", "dog"};
+        int[] found = walk(words, "cat", 1);
+
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1, -1, -1}, found);
+        assertArrayEquals(bruteForce(words, "cat", 1), found);
+    }
+
+    @Test
+    void blocksPastTheBoundWithoutAMatchAreSkipped() {
+        String[] words = {"apple", "zzzza", "zzzzb", "zzzzc", "zzzzd"};
+        assertArrayEquals(new int[]{0, -1, -1, -1, -1}, walk(words, "app", 0));
+    }
+
+    @Test
+    void walkAgreesWithPrefixDistanceOnEveryWord() {
+        Random random = new Random(42);
+        TreeSet<String> set = new TreeSet<>();
+        // a small alphabet gives long shared prefixes and many skipped blocks
+        while (set.size() < 3_000) {
+            int len = 1 + random.nextInt(8);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < len; i++) sb.append((char) ('a' + random.nextInt(4)));
+            set.add(sb.toString());
+        }
+        String[] words = set.toArray(new String[0]);
+
+        List<String> queries = new ArrayList<>(List.of("a", "abc", "dab", "abcdab", "ddddcc", "bacabad"));
+        for (String query : queries) {
+            for (int max = 0; max <= 2; max++) {
+                assertArrayEquals(bruteForce(words, query, max), walk(words, query, max),
+                        query + " within " + max);
+            }
+        }
+    }
+}
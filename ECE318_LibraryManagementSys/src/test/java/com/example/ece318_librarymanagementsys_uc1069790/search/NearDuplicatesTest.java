@@ -0,0 +1,78 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import com.example.ece318_librarymanagementsys.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearDuplicatesTest {
+
+    private static Book book(int id, String title, String author, int numRated) {
+        return new Book(id, title, author, "Fiction", "Thrillers", "Paperback",
+                299, 4.5, numRated, "https://example.com/" + id, 1, 1);
+    }
+
+    private static List<Integer> ids(NearDuplicates.Cluster cluster) {
+        List<Integer> out = new ArrayList<>();
+        for (Book b : cluster.books) out.add(b.getId());
+        return out;
+    }
+
+    @Test
+    void casingPunctuationAndFormatSuffixesMatch() {
+        assertTrue(NearDuplicates.similar(book(1, "HARRY POTTER!", "J.K. Rowling", 1),
+                book(2, "harry potter", "j k rowling", 1)));
+        assertTrue(NearDuplicates.similar(book(1, "The Hobbit", "J.R.R. Tolkien", 1),
+                book(2, "The Hobbit [Paperback] Tolkien, J.R.R.", "J.R.R. Tolkien", 1)));
+    }
+
+    @Test
+    void differentBooksDoNotMatch() {
+        assertFalse(NearDuplicates.similar(book(1, "Dune", "Frank Herbert", 1),
+                book(2, "Children of Dune", "Frank Herbert", 1)));
+        assertFalse(NearDuplicates.similar(book(1, "", "", 1), book(2, "", "", 1)));
+    }
+
+    @Test
+    void seriesVolumesStayApart() {
+        // different numbers
+        assertFalse(NearDuplicates.similar(book(1, "Tinkle Digest No. 153", "Anant Pai", 1),
+                book(2, "Tinkle Digest No. 155", "Anant Pai", 1)));
+        // same words apart from a leading word the other title lacks
+        assertFalse(NearDuplicates.similar(
+                book(1, "Flawless: The Rosewood Academy Series Book", "Jane Emily Doe", 1),
+                book(2, "Heartless: The Rosewood Academy Series Book", "Jane Emily Doe", 1)));
+        // a number on one side only is an edition detail, not a volume
+        assertTrue(NearDuplicates.similar(book(1, "Ikigai 2021", "Hector Garcia", 1),
+                book(2, "Ikigai", "Hector Garcia", 1)));
+    }
+
+    @Test
+    void findClustersLargestFirstWithTheMostRatedKept() {
+        List<Book> books = List.of(
+                book(1, "The Hobbit", "J.R.R. Tolkien", 100),
+                book(2, "Atomic Habits", "James Clear", 10),
+                book(3, "the hobbit", "j.r.r. tolkien", 900),
+                book(4, "Atomic Habits [Paperback] Clear, James", "James Clear", 50),
+                book(5, "The Hobbit (Paperback)", "J.R.R. Tolkien", 100),
+                book(6, "Sapiens", "Yuval Noah Harari", 70));
+
+        List<NearDuplicates.Cluster> clusters = NearDuplicates.find(books);
+
+        assertEquals(2, clusters.size());
+        assertEquals(List.of(3, 1, 5), ids(clusters.get(0)));
+        assertEquals(3, clusters.get(0).keep().getId());
+        assertEquals(List.of(4, 2), ids(clusters.get(1)));
+    }
+
+    @Test
+    void findNeedsTwoBooks() {
+        assertEquals(List.of(), NearDuplicates.find(List.of()));
+        assertEquals(List.of(), NearDuplicates.find(List.of(book(1, "Dune", "Frank Herbert", 1))));
+        assertEquals(List.of(), NearDuplicates.find(List.of(
+                book(1, "Dune", "Frank Herbert", 1), book(2, "Emma", "Jane Austen", 1))));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeysTest {
+
+    private static int[] sortedValues(double[] scores) {
+        long[] keys = new long[scores.length];
+        for (int i = 0; i < scores.length; i++) keys[i] = RankKeys.descending(scores[i], i);
+        Arrays.sort(keys);
+
+        int[] out = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) out[i] = RankKeys.value(keys[i]);
+        return out;
+    }
+
+    @Test
+    void highestScoreComesFirst() {
+        assertArrayEquals(new int[]{2, 0, 3, 1}, sortedValues(new double[]{4.5, 0.5, 5.0, 1.0}));
+    }
+
+    @Test
+    void negativeScoresRankBelowZero() {
+        // the cheapest board scores -price
+        assertArrayEquals(new int[]{3, 1, 0, 2}, sortedValues(new double[]{-299, -99.5, -1500, 0}));
+        assertArrayEquals(new int[]{1, 0}, sortedValues(new double[]{-1, 0}));
+    }
+
+    @Test
+    void equalScoresKeepTheLowerValueFirst() {
+        assertArrayEquals(new int[]{1, 3, 0, 2}, sortedValues(new double[]{2, 3, 2, 3}));
+    }
+
+    @Test
+    void valueSurvivesThePacking() {
+        assertEquals(Integer.MAX_VALUE, RankKeys.value(RankKeys.descending(-7.25, Integer.MAX_VALUE)));
+        assertEquals(0, RankKeys.value(RankKeys.descending(1e30, 0)));
+    }
+}
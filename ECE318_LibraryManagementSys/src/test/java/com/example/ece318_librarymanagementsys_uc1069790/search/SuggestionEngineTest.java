@@ -0,0 +1,91 @@
+package com.example.ece318_librarymanagementsys.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionEngineTest {
+
+    // More distinct labels than the delta holds before it is merged into the arrays
+    private static final int MANY = 5_000;
+
+    private static String label(int i) {
+        return String.format("Book %04d", i);
+    }
+
+    private static SuggestionEngine filled(int maxEntries) {
+        SuggestionEngine engine = new SuggestionEngine(maxEntries);
+        for (int i = 0; i < MANY; i++) engine.add(label(i), i);
+        return engine;
+    }
+
+    @Test
+    void heaviestMatchesFirstIgnoringCase() {
+        SuggestionEngine engine = new SuggestionEngine(100);
+        engine.add("The Hobbit", 10);
+        engine.add("The Hunger Games", 30);
+        engine.add("Thinking, Fast and Slow", 20);
+        engine.add("Dune", 50);
+
+        assertEquals(List.of("The Hunger Games", "Thinking, Fast and Slow", "The Hobbit"), engine.top("th", 5));
+        assertEquals(List.of("The Hunger Games"), engine.top("  THE H", 1));
+        assertEquals(List.of(), engine.top(" ", 5));
+        assertEquals(List.of(), engine.top("dune", 0));
+    }
+
+    @Test
+    void repeatedLabelsAddUpAndDisappearWithTheirLastCopy() {
+        SuggestionEngine engine = new SuggestionEngine(100);
+        engine.add("Dune", 5);
+        engine.add("dune ", 5);
+        engine.add("Dracula", 8);
+        assertEquals(List.of("Dune", "Dracula"), engine.top("d", 5));
+
+        engine.remove("Dune", 5);
+        assertEquals(List.of("Dracula", "Dune"), engine.top("d", 5));
+        engine.remove("Dune", 5);
+        assertEquals(List.of("Dracula"), engine.top("d", 5));
+    }
+
+    @Test
+    void compactedEntriesAnswerLikeTheDelta() {
+        SuggestionEngine engine = filled(MANY);
+
+        // labels from both the merged arrays and the delta written after the merge
+        assertEquals(List.of(label(4999), label(4998), label(4997)), engine.top("book", 3));
+        assertEquals(List.of(label(1009), label(1008)), engine.top("book 100", 2));
+        assertEquals(MANY, engine.size());
+    }
+
+    @Test
+    void deltaOverridesCompactedEntries() {
+        SuggestionEngine engine = filled(MANY);
+
+        engine.remove(label(1009), 1009);
+        engine.add(label(1001), 10_000);
+        assertEquals(List.of(label(1001), label(1008), label(1007)), engine.top("book 100", 3));
+    }
+
+    @Test
+    void removedLabelsAreDroppedByTheNextCompaction() {
+        SuggestionEngine engine = filled(MANY);
+        for (int i = 0; i < MANY; i++) engine.remove(label(i), i);
+
+        assertEquals(List.of(), engine.top("book", 10));
+        assertTrue(engine.size() < MANY);
+    }
+
+    @Test
+    void compactionKeepsOnlyTheHeaviestLabels() {
+        // the merge at the 4097th label keeps 3997..4096; 4097.. are still in the delta
+        SuggestionEngine engine = filled(100);
+
+        assertEquals(100 + (MANY - 4097), engine.size());
+        assertEquals(List.of(), engine.top(label(1), 1));
+        assertEquals(List.of(label(3997)), engine.top(label(3997), 1));
+        assertEquals(List.of(), engine.top(label(3996), 1));
+        assertEquals(List.of(label(4999), label(4998)), engine.top("book", 2));
+    }
+}
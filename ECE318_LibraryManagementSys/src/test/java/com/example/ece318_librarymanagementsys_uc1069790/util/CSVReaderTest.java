@@ -0,0 +1,120 @@
+package com.example.ece318_librarymanagementsys.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVReaderTest {
+
+    private static CSVReader.Row single(String csv) {
+        CSVReader reader = new CSVReader(new StringReader(csv));
+        assertTrue(reader.hasNext());
+        return reader.next();
+    }
+
+    private static List<List<String>> records(String csv) {
+        List<List<String>> out = new ArrayList<>();
+        for (CSVReader.Row row : new CSVReader(new StringReader(csv))) {
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < row.size(); i++) fields.add(row.get(i));
+            out.add(fields);
+        }
+        return out;
+    }
+
+    @Test
+    void getDoubleReadsPricesAndPlainNumbers() {
+        CSVReader.Row row = single("\"₹1,169.00\",4.4, 19923.0 ,₹ 99\n");
+        assertEquals(1169.0, row.getDouble(0));
+        assertEquals(4.4, row.getDouble(1), 1e-12);
+        assertEquals(19923, row.getInt(2));
+        assertEquals(99.0, row.getDouble(3));
+    }
+
+    @Test
+    void getDoubleHonoursTheSign() {
+        CSVReader.Row row = single("-3.5,+2,\"-₹1,200.50\",₹-7\n");
+        assertEquals(-3.5, row.getDouble(0));
+        assertEquals(2.0, row.getDouble(1));
+        assertEquals(-1200.5, row.getDouble(2));
+        assertEquals(-7.0, row.getDouble(3));
+        assertEquals(-4, single("-3.6\n").getInt(0));
+    }
+
+    @Test
+    void getDoubleRejectsTextAfterTheNumber() {
+        CSVReader.Row row = single("4.4 out of 5,1.2.3,12abc,,abc,-,\",5\"\n");
+        for (int i = 0; i < row.size(); i++) assertEquals(0.0, row.getDouble(i), "field " + i);
+        assertEquals(0.0, row.getDouble(row.size()));
+    }
+
+    @Test
+    void whitespaceAfterAClosingQuoteIsDropped() {
+        assertEquals(List.of(List.of(" padded ", "next", "last")),
+                records("\" padded \"  ,next,\"last\" \t\n"));
+    }
+
+    @Test
+    void textAfterAClosingQuoteIsKept() {
+        assertEquals(List.of(List.of("ab c", "x")), records("\"ab\" c ,x\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() {
+        assertEquals(List.of(
+                        List.of("Dune, Part One", "He said \"hi\"", "line one\nline two"),
+                        List.of("next", "")),
+                records("\"Dune, Part One\",\"He said \"\"hi\"\"\",\"line one\nline two\"\nnext,\"\"\n"));
+    }
+
+    @Test
+    void unquotedFieldsAreTrimmedAndTakeStrayQuotesLiterally() {
+        assertEquals(List.of(List.of("a", "b\"c", "", " kept ")), records("  a , b\"c ,,\" kept \"\n"));
+    }
+
+    @Test
+    void lineEndingsAndBlankLines() {
+        List<List<String>> expected = List.of(List.of("a", "b"), List.of("c"), List.of("d", ""));
+        assertEquals(expected, records("a,b\r\nc\r\rd,"));
+        assertEquals(expected, records("\n\na,b\n   \nc\n\nd,\n\n"));
+        // an empty quoted field is a record, an empty line is not
+        assertEquals(List.of(List.of("")), records("\n\"\"\n\n"));
+    }
+
+    @Test
+    void lineNumbersCountBreaksInsideQuotes() {
+        CSVReader reader = new CSVReader(new StringReader("h\n\"a\nb\",c\r\n\nd\n"));
+        List<Integer> lines = new ArrayList<>();
+        for (CSVReader.Row row : reader) lines.add(row.lineNumber());
+        assertEquals(List.of(1, 2, 5), lines);
+    }
+
+    @Test
+    void recordsSpanBufferRefills() {
+        // the CR of a CRLF is the last char of the first 64K read, the LF the first of the next
+        String longField = "x".repeat(64 * 1024 - 3);
+        CSVReader reader = new CSVReader(new StringReader("\"" + longField + "\"\r\nnext\n"));
+
+        CSVReader.Row row = reader.next();
+        assertEquals(longField, row.get(0));
+        assertEquals(1, row.size());
+        assertEquals(2, reader.next().lineNumber());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void missingColumnsReadAsEmptyAndTheIteratorEnds() {
+        CSVReader reader = new CSVReader(new StringReader("only"));
+        CSVReader.Row row = reader.next();
+        assertEquals("only", row.get(0));
+        assertEquals("", row.get(5));
+        assertEquals(0.0, row.getDouble(5));
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+}